@@ -0,0 +1,207 @@
+package com.api.bank.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Striped in-process locks keyed by account number.
+ * <p>
+ * Both stripes of a transfer are always taken in ascending stripe order, so two
+ * transfers touching the same pair of accounts can never deadlock, while
+ * transfers between unrelated accounts land on different stripes and run in parallel.
+ * <p>
+ * The transactional variants hold the stripes until the database transaction commits
+ * and release them before its after-commit listeners run, so a slow event publish never
+ * keeps other transfers on the same stripes waiting.
+ */
+@Slf4j
+@Component
+public class AccountLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long slowWaitNanos;
+    private final Timer waitTimer;
+
+    public AccountLockManager(@Value("${bank.account.lock.stripes:256}") int stripeCount,
+                              @Value("${bank.account.lock.slow-wait-ms:50}") long slowWaitMs,
+                              MeterRegistry meterRegistry) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.slowWaitNanos = TimeUnit.MILLISECONDS.toNanos(slowWaitMs);
+        this.waitTimer = Timer.builder("bank.account.lock.wait")
+                .description("Time spent waiting for account stripe locks")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public <T> T withAccountLocks(String firstNumber, String secondNumber, Supplier<T> action) {
+        int first = stripeOf(firstNumber);
+        int second = stripeOf(secondNumber);
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+
+        long start = System.nanoTime();
+        stripes[low].lock();
+        try {
+            if (high != low) {
+                stripes[high].lock();
+            }
+            try {
+                if (recordWait(start)) {
+                    log.warn("Slow lock acquisition for accounts {} / {}", firstNumber, secondNumber);
+                }
+                return action.get();
+            } finally {
+                if (high != low) {
+                    stripes[high].unlock();
+                }
+            }
+        } finally {
+            stripes[low].unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} in a transaction of {@code transactionTemplate} under the stripes
+     * of both accounts, which are released as soon as the transaction commits.
+     */
+    public <T> T withAccountLocks(String firstNumber, String secondNumber,
+                                  TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+        int first = stripeOf(firstNumber);
+        int second = stripeOf(secondNumber);
+        int[] ordered = first == second ? new int[]{first} : new int[]{Math.min(first, second), Math.max(first, second)};
+        return withStripesUntilCommit(ordered, transactionTemplate, action);
+    }
+
+    /**
+     * Locks the stripes of every given account, in ascending stripe order. Meant for
+     * batch work; a large enough set ends up holding most of the stripes.
+     */
+    public <T> T withAccountLocks(Collection<String> accountNumbers, Supplier<T> action) {
+        return withStripes(stripesOf(accountNumbers), action);
+    }
+
+    /**
+     * Batch variant of {@link #withAccountLocks(String, String, TransactionTemplate, TransactionCallback)}.
+     */
+    public <T> T withAccountLocks(Collection<String> accountNumbers,
+                                  TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+        return withStripesUntilCommit(stripesOf(accountNumbers), transactionTemplate, action);
+    }
+
+    /**
+     * Locks every stripe, which stops all transfers for the duration of {@code action}.
+     * Meant for maintenance work that rewrites balances.
+     */
+    public <T> T withAllLocks(Supplier<T> action) {
+        return withStripes(IntStream.range(0, stripes.length).toArray(), action);
+    }
+
+    private <T> T withStripes(int[] ordered, Supplier<T> action) {
+        HeldStripes held = new HeldStripes(ordered);
+        try {
+            held.lock();
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * Spring runs after-commit event listeners in {@code afterCompletion}, which only
+     * starts once every synchronization's {@code afterCommit} has run, so the stripes are
+     * free before any of them. A rolled back transaction releases them on return.
+     */
+    private <T> T withStripesUntilCommit(int[] ordered, TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+        HeldStripes held = new HeldStripes(ordered);
+        try {
+            held.lock();
+            return transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        held.unlock();
+                    }
+                });
+                return action.doInTransaction(status);
+            });
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private int[] stripesOf(Collection<String> accountNumbers) {
+        return accountNumbers.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    int stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private boolean recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        return waited >= slowWaitNanos;
+    }
+
+    /**
+     * Stripes locked by the current thread, in ascending order. Unlocking is idempotent,
+     * so the owner can release them early and still unlock on every exit path.
+     */
+    private final class HeldStripes {
+
+        private final int[] ordered;
+        private int locked;
+
+        HeldStripes(int[] ordered) {
+            this.ordered = ordered;
+        }
+
+        void lock() {
+            long start = System.nanoTime();
+            for (int stripe : ordered) {
+                stripes[stripe].lock();
+                locked++;
+            }
+            if (recordWait(start)) {
+                log.warn("Slow lock acquisition for {} account stripes", ordered.length);
+            }
+        }
+
+        void unlock() {
+            while (locked > 0) {
+                stripes[ordered[--locked]].unlock();
+            }
+        }
+    }
+}
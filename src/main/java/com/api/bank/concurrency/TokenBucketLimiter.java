@@ -0,0 +1,90 @@
+package com.api.bank.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key, holding {@code capacity} tokens and regaining one every
+ * {@code refillPeriod}.
+ * <p>
+ * Each bucket is a single {@code long}: the instant at which it will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token
+ * pushes that instant one period forward with a CAS, and is refused while it would land
+ * more than {@code capacity} periods ahead, so the hot path needs neither locks nor
+ * allocation. Keys are spread over independent maps; a bucket that has refilled
+ * completely carries no state and is dropped by {@link #evictIdle}.
+ */
+public class TokenBucketLimiter<K> {
+
+    private static final int SHARDS = 16;
+
+    private final long periodNanos;
+    private final long burstNanos;
+    private final ConcurrentHashMap<K, AtomicLong>[] shards;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketLimiter(int capacity, Duration refillPeriod) {
+        this.periodNanos = refillPeriod.toNanos();
+        this.burstNanos = capacity * periodNanos;
+        this.shards = new ConcurrentHashMap[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes a token for {@code key}. Returns 0 when one was available, otherwise the
+     * nanoseconds until the next one is.
+     */
+    public long tryAcquire(K key) {
+        long now = System.nanoTime();
+        ConcurrentHashMap<K, AtomicLong> shard = shardOf(key);
+        AtomicLong fullAt = shard.get(key);
+        if (fullAt == null) {
+            fullAt = shard.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - now, 0) + now + periodNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops every bucket that is full again. A request racing with the removal may get
+     * one token from a bucket that is then forgotten, which only errs towards allowing.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (ConcurrentHashMap<K, AtomicLong> shard : shards) {
+            for (var entry : shard.entrySet()) {
+                if (entry.getValue().get() - now <= 0 && shard.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<K, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<K, AtomicLong> shardOf(K key) {
+        int h = key.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+}
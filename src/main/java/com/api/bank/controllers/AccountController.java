@@ -1,8 +1,12 @@
 package com.api.bank.controllers;
 
 import com.api.bank.dtos.AccountPostDTO;
+import com.api.bank.dtos.AccountResponseDTO;
 import com.api.bank.dtos.AccountUpdateDTO;
+import com.api.bank.dtos.HotSlotsDTO;
+import com.api.bank.dtos.StatementQueryDTO;
 import com.api.bank.services.AccountService;
+import com.api.bank.services.StatementService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,25 +20,35 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private StatementService statementService;
+
     @GetMapping("/")
     public ResponseEntity<?> getAccounts() {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(this.accountService.getAccounts());
+                .body(this.accountService.getAccounts().stream().map(AccountResponseDTO::from).toList());
     }
 
     @PostMapping("/")
     public ResponseEntity<?> createAccount(@RequestBody @Valid AccountPostDTO accountPostDTO) {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(this.accountService.createAccount(accountPostDTO));
+                .body(AccountResponseDTO.from(this.accountService.createAccount(accountPostDTO)));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getAccount(@PathVariable String id) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(this.accountService.getAccount(id));
+                .body(AccountResponseDTO.from(this.accountService.getAccount(id)));
+    }
+
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<?> getStatement(@PathVariable String id, @Valid StatementQueryDTO query) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(this.statementService.getStatement(id, query));
     }
 
     @DeleteMapping("/{id}")
@@ -49,6 +63,13 @@ public class AccountController {
     public ResponseEntity<?> updateAccount(@PathVariable String id, @RequestBody @Valid AccountUpdateDTO accountUpdateDTO) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(this.accountService.updateAccount(id, accountUpdateDTO));
+                .body(AccountResponseDTO.from(this.accountService.updateAccount(id, accountUpdateDTO)));
+    }
+
+    @PutMapping("/{id}/hot-slots")
+    public ResponseEntity<?> configureHotSlots(@PathVariable String id, @RequestBody @Valid HotSlotsDTO hotSlotsDTO) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(AccountResponseDTO.from(this.accountService.configureHotSlots(id, hotSlotsDTO)));
     }
 }
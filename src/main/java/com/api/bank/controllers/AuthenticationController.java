@@ -4,7 +4,9 @@ package com.api.bank.controllers;
 import com.api.bank.dtos.AuthenticationDTO;
 import com.api.bank.dtos.LoginResponseDTO;
 import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.exceptions.auth.PasswordHashingBusyException;
 import com.api.bank.repositories.UserRepository;
+import com.api.bank.security.PasswordHashingBulkhead;
 import com.api.bank.security.TokenService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -33,17 +35,26 @@ public class AuthenticationController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingBulkhead passwordHashingBulkhead;
+
     @PostMapping("/login")
     public ResponseEntity login(@RequestBody @Valid AuthenticationDTO data){
         log.info("Login attempt for user: {}", data.email());
         try {
             var usernamePassword = new UsernamePasswordAuthenticationToken(data.email(), data.password());
-            var auth = this.authenticationManager.authenticate(usernamePassword);
+            // The BCrypt check runs on the hashing pool, never on more request threads than it admits.
+            var auth = this.passwordHashingBulkhead.execute(() -> this.authenticationManager.authenticate(usernamePassword));
 
             var token = tokenService.generateToken((User) auth.getPrincipal());
 
             log.info("User '{}' authenticated successfully", data.email());
             return ResponseEntity.ok(new LoginResponseDTO(token));
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Failed login attempt for user '{}': {}", data.email(), e.getMessage());
             return ResponseEntity.status(401).build();
@@ -58,7 +69,7 @@ public class AuthenticationController {
             return ResponseEntity.badRequest().build();
         }
 
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.password());
+        String encryptedPassword = this.passwordHashingBulkhead.execute(() -> this.passwordEncoder.encode(data.password()));
         User newUser = new User(data.email(), encryptedPassword, data.role());
 
         this.repository.save(newUser);
@@ -0,0 +1,23 @@
+package com.api.bank.controllers;
+
+import com.api.bank.dtos.LedgerRebuildDTO;
+import com.api.bank.services.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/ledger")
+public class LedgerController {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuildBalances() {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new LedgerRebuildDTO(this.ledgerService.rebuildBalances()));
+    }
+}
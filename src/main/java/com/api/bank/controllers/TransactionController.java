@@ -1,39 +1,126 @@
 package com.api.bank.controllers;
 
 
+import com.api.bank.dtos.TransactionBatchPostDTO;
+import com.api.bank.dtos.TransactionFilterDTO;
+import com.api.bank.dtos.TransactionPage;
 import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.dtos.TransactionResponseDTO;
+import com.api.bank.dtos.TransactionStatusDTO;
+import com.api.bank.enums.ExportFormat;
+import com.api.bank.services.AsyncTransferService;
+import com.api.bank.services.TransactionExportService;
+import com.api.bank.services.TransactionHistoryService;
 import com.api.bank.services.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
     @GetMapping("/")
-    public ResponseEntity<?> getTransactions() {
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(this.transactionService.getTransactions());
+    public ResponseEntity<?> getTransactions(@Valid TransactionFilterDTO filter) {
+        return page(this.transactionHistoryService.getTransactions(filter));
     }
 
     @PostMapping("/")
-    public ResponseEntity<?> createTransaction(@RequestBody @Valid TransactionPostDTO transactionPostDTO) {
+    public ResponseEntity<?> createTransaction(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                               @RequestBody @Valid TransactionPostDTO transactionPostDTO) {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(this.transactionService.createTransaction(transactionPostDTO));
+                .body(TransactionResponseDTO.from(this.transactionService.createTransaction(transactionPostDTO, idempotencyKey)));
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<?> submitTransaction(@RequestBody @Valid TransactionPostDTO transactionPostDTO) {
+        TransactionStatusDTO status = this.asyncTransferService.submit(transactionPostDTO);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/transactions/{id}/status")
+                        .buildAndExpand(status.id())
+                        .toUri())
+                .body(status);
+    }
+
+    @GetMapping("/{id}/status")
+    public CompletableFuture<ResponseEntity<?>> getTransactionStatus(@PathVariable UUID id,
+                                                                     @RequestParam(defaultValue = "0") long waitMs) {
+        return this.asyncTransferService.getStatus(id, waitMs)
+                .thenApply(status -> ResponseEntity.status(HttpStatus.OK).body(status));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransactions(@RequestBody @Valid TransactionBatchPostDTO transactionBatchPostDTO) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(this.transactionService.createTransactions(transactionBatchPostDTO));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return export(exportFormat, this.transactionExportService.exportTransactions(exportFormat));
+    }
+
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByAccount(@PathVariable String id,
+                                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return export(exportFormat, this.transactionExportService.exportTransactionsByAccount(id, exportFormat));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTransactionsByAccount(@PathVariable String id) {
+    public ResponseEntity<?> getTransactionsByAccount(@PathVariable String id, @Valid TransactionFilterDTO filter) {
+        return page(this.transactionHistoryService.getTransactionsByAccount(id, filter));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportFormat format, StreamingResponseBody body) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(this.transactionService.getTransactionsByAccount(id));
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    /**
+     * The body stays a plain array of the page's items; the continuation token travels in
+     * {@code X-Next-Cursor} and a {@code Link: rel="next"} header, both absent on the last page.
+     */
+    private ResponseEntity<?> page(TransactionPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
     }
 }
@@ -1,5 +1,6 @@
 package com.api.bank.dtos;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
@@ -21,5 +22,6 @@ public class AccountPostDTO {
 
     @NotNull(message = "Account balance is required.")
     @PositiveOrZero(message = "The account balance cannot be negative.")
+    @Digits(integer = 16, fraction = 2, message = "The account balance can have at most 2 decimal places.")
     private BigDecimal balance;
 }
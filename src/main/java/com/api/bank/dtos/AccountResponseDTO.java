@@ -0,0 +1,32 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record AccountResponseDTO(
+        UUID id,
+        String number,
+        Owner user,
+        Money balance,
+        int hotSlots,
+        LocalDateTime createdAt) {
+
+    /**
+     * Only what identifies the owner; never the credentials.
+     */
+    public record Owner(UUID id, String email) {
+    }
+
+    public static AccountResponseDTO from(Account account) {
+        return new AccountResponseDTO(
+                account.getId(),
+                account.getNumber(),
+                new Owner(account.getUser().getId(), account.getUser().getEmail()),
+                account.getBalance(),
+                account.getHotSlots(),
+                account.getCreatedAt());
+    }
+}
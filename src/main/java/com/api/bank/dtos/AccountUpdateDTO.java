@@ -1,5 +1,6 @@
 package com.api.bank.dtos;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.*;
@@ -18,5 +19,6 @@ public class AccountUpdateDTO {
     private String number;
 
     @PositiveOrZero(message = "The account balance cannot be negative.")
+    @Digits(integer = 16, fraction = 2, message = "The account balance can have at most 2 decimal places.")
     private BigDecimal balance;
 }
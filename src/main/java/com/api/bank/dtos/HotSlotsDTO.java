@@ -0,0 +1,10 @@
+package com.api.bank.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record HotSlotsDTO(
+        @Min(value = 2, message = "A hot account needs at least 2 slots.")
+        @Max(value = 64, message = "A hot account can have at most 64 slots.")
+        int slots) {
+}
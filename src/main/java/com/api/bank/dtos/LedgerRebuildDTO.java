@@ -0,0 +1,4 @@
+package com.api.bank.dtos;
+
+public record LedgerRebuildDTO(int accounts) {
+}
@@ -0,0 +1,21 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of an account statement. {@code openingBalance} is the balance before the
+ * first entry of the page and {@code closingBalance} the balance after its last one.
+ * A page without entries opens and closes at the balance as of the period's start.
+ */
+public record StatementDTO(
+        UUID accountId,
+        String number,
+        Money openingBalance,
+        Money closingBalance,
+        List<StatementEntryDTO> entries,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
+}
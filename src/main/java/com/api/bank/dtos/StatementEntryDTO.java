@@ -0,0 +1,21 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One statement line: a signed change to the balance and the balance right after it.
+ * Adjustments, such as the opening deposit, have no transaction and no counterparty.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatementEntryDTO(
+        long postingId,
+        UUID transactionId,
+        String counterparty,
+        LocalDateTime date,
+        Money amount,
+        Money balance) {
+}
@@ -0,0 +1,20 @@
+package com.api.bank.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of {@code GET /accounts/{id}/statement}. {@code from} is inclusive,
+ * {@code to} exclusive; {@code cursor} is the {@code nextCursor} of the previous page.
+ */
+public record StatementQueryDTO(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        String cursor,
+        @Min(value = 1, message = "The page size must be at least 1.")
+        @Max(value = 1000, message = "The page size can be at most 1000.")
+        Integer limit) {
+}
@@ -0,0 +1,8 @@
+package com.api.bank.dtos;
+
+import com.api.bank.enums.TransactionStatus;
+
+import java.util.UUID;
+
+public record TransactionBatchItemDTO(int index, TransactionStatus status, UUID transactionId, String message) {
+}
@@ -0,0 +1,24 @@
+package com.api.bank.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@Builder
+public class TransactionBatchPostDTO {
+
+    @NotEmpty(message = "At least one transaction is required.")
+    @Size(max = 50000, message = "A batch cannot have more than 50000 transactions.")
+    private List<@Valid TransactionPostDTO> transactions;
+
+    private boolean atomic;
+}
@@ -0,0 +1,6 @@
+package com.api.bank.dtos;
+
+import java.util.List;
+
+public record TransactionBatchResponseDTO(int completed, int failed, List<TransactionBatchItemDTO> results) {
+}
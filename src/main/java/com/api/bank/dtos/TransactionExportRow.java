@@ -0,0 +1,22 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Money;
+import com.api.bank.enums.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported transaction, flattened to the account numbers. Selected directly by the
+ * export query, so no entity ever enters the persistence context.
+ */
+public record TransactionExportRow(
+        UUID id,
+        LocalDateTime dateTransfer,
+        String fromAccount,
+        String toAccount,
+        Money amount,
+        TransactionStatus status,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String failureReason) {
+}
@@ -0,0 +1,29 @@
+package com.api.bank.dtos;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the transaction history endpoints. Every filter is optional;
+ * {@code cursor} is the {@code X-Next-Cursor} value of the previous page.
+ */
+public record TransactionFilterDTO(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @PositiveOrZero(message = "The minimum amount cannot be negative.")
+        @Digits(integer = 16, fraction = 2, message = "The minimum amount can have at most 2 decimal places.")
+        BigDecimal minAmount,
+        @PositiveOrZero(message = "The maximum amount cannot be negative.")
+        @Digits(integer = 16, fraction = 2, message = "The maximum amount can have at most 2 decimal places.")
+        BigDecimal maxAmount,
+        String cursor,
+        @Min(value = 1, message = "The page size must be at least 1.")
+        @Max(value = 1000, message = "The page size can be at most 1000.")
+        Integer limit) {
+}
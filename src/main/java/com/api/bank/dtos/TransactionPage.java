@@ -0,0 +1,9 @@
+package com.api.bank.dtos;
+
+import java.util.List;
+
+/**
+ * One page of transaction history, newest first. {@code nextCursor} is null on the last page.
+ */
+public record TransactionPage(List<TransactionResponseDTO> items, String nextCursor) {
+}
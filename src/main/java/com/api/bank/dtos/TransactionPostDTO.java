@@ -1,5 +1,6 @@
 package com.api.bank.dtos;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
@@ -23,6 +24,7 @@ public class TransactionPostDTO {
 
     @NotNull(message = "Transaction amount is required.")
     @Positive(message = "The transaction amount cannot be negative or zero.")
+    @Digits(integer = 16, fraction = 2, message = "The transaction amount can have at most 2 decimal places.")
     private BigDecimal amount;
 
     @NotNull(message = "Owner password is required.")
@@ -0,0 +1,44 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionResponseDTO(
+        UUID id,
+        AccountRef fromAccount,
+        AccountRef toAccount,
+        Money amount,
+        TransactionStatus status,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String failureReason,
+        LocalDateTime dateTransfer) {
+
+    public record AccountRef(UUID id, String number) {
+    }
+
+    /**
+     * Flat form for JPQL and Criteria constructor expressions, which cannot build the
+     * nested account references themselves.
+     */
+    public TransactionResponseDTO(UUID id, UUID fromAccountId, String fromAccountNumber,
+                                  UUID toAccountId, String toAccountNumber, Money amount,
+                                  TransactionStatus status, String failureReason, LocalDateTime dateTransfer) {
+        this(id, new AccountRef(fromAccountId, fromAccountNumber), new AccountRef(toAccountId, toAccountNumber),
+                amount, status, failureReason, dateTransfer);
+    }
+
+    public static TransactionResponseDTO from(Transaction transaction) {
+        return new TransactionResponseDTO(
+                transaction.getId(),
+                transaction.getFromAccount().getId(), transaction.getFromAccount().getNumber(),
+                transaction.getToAccount().getId(), transaction.getToAccount().getNumber(),
+                transaction.getAmount(),
+                transaction.getStatus(),
+                transaction.getFailureReason(),
+                transaction.getDateTransfer());
+    }
+}
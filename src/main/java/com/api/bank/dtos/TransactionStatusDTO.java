@@ -0,0 +1,13 @@
+package com.api.bank.dtos;
+
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+
+import java.util.UUID;
+
+public record TransactionStatusDTO(UUID id, TransactionStatus status, String message) {
+
+    public static TransactionStatusDTO from(Transaction transaction) {
+        return new TransactionStatusDTO(transaction.getId(), transaction.getStatus(), transaction.getFailureReason());
+    }
+}
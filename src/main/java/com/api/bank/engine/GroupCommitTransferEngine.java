@@ -0,0 +1,161 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Transaction;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.transaction.TransferEngineBusyException;
+import com.api.bank.services.TransferWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional transfer engine enabled with {@code bank.transaction.engine=group-commit}.
+ * <p>
+ * Transfers arriving within a short window, or until the group is full, are written
+ * by a single committer thread in one database transaction, so many transfers share
+ * one commit and its log flush. A transfer rejected by the business rules leaves no
+ * writes behind (see {@link TransferWriter}), so it is reported to its caller while the
+ * rest of the group commits. Any other failure aborts the group, which is then retried
+ * one transfer per transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.transaction.engine", havingValue = "group-commit")
+public class GroupCommitTransferEngine implements TransferEngine {
+
+    @Autowired
+    private TransferWriter transferWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.transaction.group-commit.window-ms:2}")
+    private long windowMs;
+
+    @Value("${bank.transaction.group-commit.max-batch-size:128}")
+    private int maxBatchSize;
+
+    @Value("${bank.transaction.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<PendingTransfer> queue;
+    private TransactionTemplate groupTemplate;
+    private TransactionTemplate singleTemplate;
+    private Thread committer;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    void start() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.groupTemplate = new TransactionTemplate(transactionManager);
+        this.singleTemplate = new TransactionTemplate(transactionManager);
+
+        this.committer = new Thread(this::run, "transfer-group-committer");
+        this.committer.start();
+        log.info("Group commit transfer engine started (window = {} ms, max batch = {})", windowMs, maxBatchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join();
+    }
+
+    @Override
+    public TransferResult submit(Transaction transaction) {
+        PendingTransfer pending = new PendingTransfer(transaction, transaction.getId(), new TransferResult());
+        if (!queue.offer(pending)) {
+            log.warn("Group commit queue full for account {}", transaction.getFromAccount().getNumber());
+            throw new TransferEngineBusyException();
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<PendingTransfer> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                queue.drainTo(group, maxBatchSize - group.size());
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Blocks for the first transfer, then gathers more until the window closes or the group is full.
+     */
+    private void collect(List<PendingTransfer> group) throws InterruptedException {
+        group.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+        while (group.size() < maxBatchSize) {
+            queue.drainTo(group, maxBatchSize - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        // Transfers their submitters gave up on are dropped before anything is written.
+        group.removeIf(pending -> !pending.result().claim());
+        if (group.isEmpty()) {
+            return;
+        }
+        List<Runnable> completions = new ArrayList<>(group.size());
+        try {
+            groupTemplate.executeWithoutResult(status -> {
+                for (PendingTransfer pending : group) {
+                    try {
+                        Transaction saved = transferWriter.write(pending.transaction());
+                        completions.add(() -> pending.result().complete(saved));
+                    } catch (BankException e) {
+                        completions.add(() -> pending.result().completeExceptionally(e));
+                    }
+                }
+            });
+            completions.forEach(Runnable::run);
+            log.debug("Group of {} transfers committed", group.size());
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} transfers failed, retrying them one by one", group.size(), e);
+            group.forEach(this::commitAlone);
+        }
+    }
+
+    private void commitAlone(PendingTransfer pending) {
+        // The failed group may already have assigned an id that was never committed.
+        pending.transaction().setId(pending.originalId());
+        try {
+            pending.result().complete(singleTemplate.execute(status -> transferWriter.write(pending.transaction())));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private record PendingTransfer(Transaction transaction, UUID originalId, TransferResult result) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+
+/**
+ * Messages processed by a {@link TransferShard}. Every command targets an account
+ * owned by the receiving shard, so each balance only ever has a single writer.
+ */
+sealed interface ShardCommand {
+
+    /**
+     * Debits the source account of {@code transaction} in memory; both legs are then
+     * written by the owning shard's next batch.
+     */
+    record Transfer(Transaction transaction, TransferResult result) implements ShardCommand {
+    }
+
+    /**
+     * A credit already committed to the database. The cached balance is not raised by
+     * it, only reloaded when a debit needs more than it holds.
+     */
+    record Credit(String accountNumber, Money amount) implements ShardCommand {
+    }
+
+    /**
+     * Drops the cached balance so the next command reloads it from the database.
+     */
+    record Evict(String accountNumber) implements ShardCommand {
+    }
+}
@@ -0,0 +1,244 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.account.AccountNotFoundException;
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
+import com.api.bank.exceptions.transaction.TransferEngineBusyException;
+import com.api.bank.kafka.event.TransactionCreatedEvent;
+import com.api.bank.kafka.event.TransactionEvent;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.services.IdempotencyService;
+import com.api.bank.services.LedgerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional transfer engine enabled with {@code bank.transaction.engine=sharded}.
+ * <p>
+ * Each transfer is hashed by source account number onto one of N single-threaded
+ * {@link TransferShard}s, which hold the authoritative in-memory balance of the
+ * accounts they own and persist their results in batches. Callers get a future
+ * that completes once both legs and the transaction row are committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.transaction.engine", havingValue = "sharded")
+public class ShardedTransferEngine implements TransferEngine {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${bank.transaction.engine.shards:0}")
+    private int shardCount;
+
+    @Value("${bank.transaction.engine.ring-capacity:1024}")
+    private int ringCapacity;
+
+    @Value("${bank.transaction.engine.batch-size:256}")
+    private int batchSize;
+
+    @Value("${bank.transaction.engine.submit-timeout-ms:1000}")
+    private long submitTimeoutMs;
+
+    private TransferShard[] shards;
+
+    @PostConstruct
+    void start() {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new TransferShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new TransferShard(i, this, ringCapacity, batchSize);
+            shards[i].start();
+        }
+        log.info("Sharded transfer engine started with {} shards", count);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (TransferShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    /**
+     * Queues a validated transfer on the shard owning its source account. Waits up to
+     * the submit timeout for ring space before giving up with {@link TransferEngineBusyException}.
+     */
+    @Override
+    public TransferResult submit(Transaction transaction) {
+        TransferResult result = new TransferResult();
+        ShardCommand.Transfer command = new ShardCommand.Transfer(transaction, result);
+        TransferShard shard = shardOf(transaction.getFromAccount().getNumber());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(submitTimeoutMs);
+        while (!shard.offer(command)) {
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Transfer engine queue full for account {}", transaction.getFromAccount().getNumber());
+                throw new TransferEngineBusyException();
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(String accountNumber) {
+        shardOf(accountNumber).send(new ShardCommand.Evict(accountNumber));
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    void route(ShardCommand.Credit credit) {
+        shardOf(credit.accountNumber()).send(credit);
+    }
+
+    Money loadBalance(String number) {
+        return accountRepository.findByNumber(number)
+                .map(Account::getBalance)
+                .orElseThrow(AccountNotFoundException::new);
+    }
+
+    /**
+     * Writes both legs of every transfer in the batch, its rows and postings in one
+     * database transaction, so a transfer is acknowledged only once it is entirely durable.
+     * <p>
+     * The net change of each account is applied with a guarded UPDATE, in account number
+     * order so concurrent persisters cannot deadlock on each other's rows. An UPDATE that
+     * matches no row means the account vanished or, when the shard's balance was stale,
+     * cannot cover its debits: the transaction is rolled back, the transfers that account
+     * breaks are failed and the rest is retried. Each retry drops at least one transfer.
+     */
+    void persist(List<ShardCommand.Transfer> batch) {
+        List<ShardCommand.Transfer> remaining = batch;
+        Map<ShardCommand.Transfer, RuntimeException> failed = new LinkedHashMap<>();
+        while (!remaining.isEmpty()) {
+            List<ShardCommand.Transfer> attempt = remaining;
+            String refused;
+            try {
+                refused = transactionTemplate.execute(status -> {
+                    String account = applyDeltas(attempt);
+                    if (account != null) {
+                        status.setRollbackOnly();
+                        return account;
+                    }
+                    saveCompleted(attempt);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to persist batch of {} transfers, reverting their debits", attempt.size(), e);
+                attempt.forEach(transfer -> failed.put(transfer, e));
+                break;
+            }
+
+            if (refused == null) {
+                // Destination shards only learn about credits that are committed.
+                attempt.forEach(transfer -> {
+                    Transaction transaction = transfer.transaction();
+                    route(new ShardCommand.Credit(transaction.getToAccount().getNumber(), transaction.getAmount()));
+                    transfer.result().complete(transaction);
+                });
+                log.debug("Persisted {} transfers", attempt.size());
+                break;
+            }
+
+            BankException reason = accountRepository.existsByNumber(refused)
+                    ? new InsufficientBalanceException()
+                    : new AccountNotFoundException();
+            log.warn("Account {} refused its batch delta ({}), failing the transfers it breaks", refused, reason.getMessage());
+            List<ShardCommand.Transfer> kept = new ArrayList<>(attempt.size());
+            for (ShardCommand.Transfer transfer : attempt) {
+                Transaction transaction = transfer.transaction();
+                boolean breaks = transaction.getFromAccount().getNumber().equals(refused)
+                        || (reason instanceof AccountNotFoundException && transaction.getToAccount().getNumber().equals(refused));
+                if (breaks) {
+                    failed.put(transfer, reason);
+                } else {
+                    kept.add(transfer);
+                }
+            }
+            remaining = kept;
+        }
+        // The owning shard already debited these in memory; reloading undoes that before
+        // their callers, who may retry at once, hear about the failure.
+        failed.keySet().stream()
+                .map(transfer -> transfer.transaction().getFromAccount().getNumber())
+                .distinct()
+                .forEach(this::evict);
+        failed.forEach((transfer, reason) -> transfer.result().completeExceptionally(reason));
+    }
+
+    /**
+     * Returns the first account whose guarded UPDATE matched no row, or {@code null}
+     * when every delta was applied.
+     */
+    private String applyDeltas(List<ShardCommand.Transfer> transfers) {
+        Map<String, Money> deltas = new TreeMap<>();
+        for (ShardCommand.Transfer transfer : transfers) {
+            Transaction transaction = transfer.transaction();
+            deltas.merge(transaction.getFromAccount().getNumber(), transaction.getAmount().negate(), Money::plus);
+            deltas.merge(transaction.getToAccount().getNumber(), transaction.getAmount(), Money::plus);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, Money> delta : deltas.entrySet()) {
+            if (accountRepository.adjust(delta.getKey(), delta.getValue().minorUnits(), now) == 0) {
+                return delta.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void saveCompleted(List<ShardCommand.Transfer> transfers) {
+        List<Transaction> transactions = transfers.stream()
+                .map(ShardCommand.Transfer::transaction)
+                .toList();
+        transactions.forEach(transaction -> transaction.setStatus(TransactionStatus.COMPLETED));
+        transactionRepository.saveAll(transactions);
+        ledgerService.recordAll(transactions);
+        transactions.forEach(idempotencyService::answer);
+        transactions.forEach(transaction ->
+                eventPublisher.publishEvent(new TransactionCreatedEvent(TransactionEvent.from(transaction))));
+    }
+
+    private TransferShard shardOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return shards[Math.floorMod(h ^ (h >>> 16), shards.length)];
+    }
+}
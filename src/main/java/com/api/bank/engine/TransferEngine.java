@@ -0,0 +1,22 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Transaction;
+
+/**
+ * Alternative execution mode for validated transfers, selected with {@code bank.transaction.engine}.
+ * When no engine bean is present, transfers run directly on the request thread.
+ */
+public interface TransferEngine {
+
+    /**
+     * Queues a transfer that already passed authorization. The result completes once both
+     * of its legs are committed, or exceptionally with the reason it was rejected.
+     */
+    TransferResult submit(Transaction transaction);
+
+    /**
+     * Forgets anything cached about an account whose row was changed outside the engine.
+     */
+    default void evict(String accountNumber) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outcome of a transfer submitted to a {@link TransferEngine}.
+ * <p>
+ * A worker {@link #claim claims} the transfer before applying it, and from then on the
+ * future always completes with the outcome. Until that moment the submitter may
+ * {@link #withdraw} it instead, after which no worker will touch it; this is the only
+ * point at which giving up on a transfer is known to leave no effects.
+ */
+public class TransferResult extends CompletableFuture<Transaction> {
+
+    private static final int QUEUED = 0;
+    private static final int CLAIMED = 1;
+    private static final int WITHDRAWN = 2;
+
+    private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+    /**
+     * Called by an engine worker before it applies the transfer. Returns {@code false}
+     * when the submitter already withdrew it, in which case it must be skipped.
+     */
+    public boolean claim() {
+        return state.compareAndSet(QUEUED, CLAIMED);
+    }
+
+    /**
+     * Takes back a transfer no worker has started. Returns {@code false} once it is being
+     * applied, in which case the future will still complete.
+     */
+    public boolean withdraw() {
+        if (!state.compareAndSet(QUEUED, WITHDRAWN)) {
+            return false;
+        }
+        cancel(false);
+        return true;
+    }
+}
@@ -0,0 +1,217 @@
+package com.api.bank.engine;
+
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-threaded owner of the balances of every account hashed onto it.
+ * <p>
+ * Transfers arrive through a bounded {@link RingBuffer}; credits forwarded by other
+ * shards use an unbounded mailbox so two full shards can never wait on each other.
+ * Results are handed to a per-shard persister thread in batches, which keeps the
+ * hot path free of both locks and database round trips. A batch writes both legs of
+ * its transfers, so a transfer that later fails has nothing to take back but its debit.
+ * <p>
+ * A cached balance never runs ahead of the database: committed credits are not added
+ * to it, since a reload racing with their commit may already include them. They only
+ * mark it as possibly behind, and a debit it does not cover reloads it first.
+ */
+@Slf4j
+class TransferShard implements Runnable {
+
+    private final int index;
+    private final ShardedTransferEngine engine;
+    private final RingBuffer<ShardCommand.Transfer> transfers;
+    private final Queue<ShardCommand> mailbox = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+    private final Thread thread;
+    private final ExecutorService persister;
+
+    private final Map<String, Money> balances = new HashMap<>();
+    private final Set<String> credited = new HashSet<>();
+    private List<ShardCommand.Transfer> pendingTransfers = new ArrayList<>();
+    private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
+
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+
+    TransferShard(int index, ShardedTransferEngine engine, int ringCapacity, int batchSize) {
+        this.index = index;
+        this.engine = engine;
+        this.transfers = new RingBuffer<>(ringCapacity);
+        this.batchSize = batchSize;
+        this.thread = new Thread(this, "transfer-shard-" + index);
+        this.persister = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "transfer-shard-" + index + "-persister"));
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean offer(ShardCommand.Transfer transfer) {
+        if (!transfers.offer(transfer)) {
+            return false;
+        }
+        wake();
+        return true;
+    }
+
+    void send(ShardCommand command) {
+        mailbox.add(command);
+        wake();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+        persister.shutdown();
+        persister.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void run() {
+        while (running || !mailbox.isEmpty() || !transfers.isEmpty()) {
+            int processed = 0;
+            ShardCommand command;
+            while (processed < batchSize && (command = mailbox.poll()) != null) {
+                handle(command);
+                processed++;
+            }
+            ShardCommand.Transfer transfer;
+            while (processed < batchSize && (transfer = transfers.poll()) != null) {
+                handle(transfer);
+                processed++;
+            }
+
+            if (pendingTransfers.size() >= batchSize || (processed == 0 && hasPending())) {
+                flush();
+            }
+            if (processed == 0) {
+                idle();
+            }
+        }
+        flush();
+    }
+
+    private void handle(ShardCommand command) {
+        try {
+            switch (command) {
+                case ShardCommand.Transfer transfer -> debit(transfer);
+                case ShardCommand.Credit credit -> credit(credit);
+                case ShardCommand.Evict evict -> evict(evict.accountNumber());
+            }
+        } catch (BankException e) {
+            if (command instanceof ShardCommand.Transfer transfer) {
+                transfer.result().completeExceptionally(e);
+            } else {
+                log.error("Shard {} could not apply {}", index, command, e);
+            }
+        } catch (RuntimeException e) {
+            log.error("Shard {} failed on {}", index, command, e);
+            if (command instanceof ShardCommand.Transfer transfer) {
+                transfer.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void debit(ShardCommand.Transfer transfer) {
+        if (!transfer.result().claim()) {
+            log.debug("Shard {} skipped a transfer withdrawn by its submitter", index);
+            return;
+        }
+        Transaction transaction = transfer.transaction();
+        String number = transaction.getFromAccount().getNumber();
+        Money amount = transaction.getAmount();
+
+        Money balance = balanceOf(number);
+        if (balance.isLessThan(amount) && credited.contains(number)) {
+            evict(number);
+            balance = balanceOf(number);
+        }
+        if (balance.isLessThan(amount)) {
+            log.warn("Insufficient balance in account {} for amount {}", number, amount);
+            throw new InsufficientBalanceException();
+        }
+
+        Money newBalance = balance.minus(amount);
+        balances.put(number, newBalance);
+        transaction.getFromAccount().setBalance(newBalance);
+        pendingTransfers.add(transfer);
+    }
+
+    /**
+     * An account that is not cached is loaded from the database later, which already
+     * holds the credit.
+     */
+    private void credit(ShardCommand.Credit credit) {
+        if (balances.containsKey(credit.accountNumber())) {
+            credited.add(credit.accountNumber());
+        }
+    }
+
+    /**
+     * Waits for everything already applied to reach the database before forgetting the
+     * balance, otherwise the reload could miss deltas that are still being persisted.
+     */
+    private void evict(String number) {
+        flush();
+        lastFlush.join();
+        balances.remove(number);
+        credited.remove(number);
+        log.debug("Shard {} evicted account {}", index, number);
+    }
+
+    private Money balanceOf(String number) {
+        Money balance = balances.get(number);
+        if (balance == null) {
+            balance = engine.loadBalance(number);
+            balances.put(number, balance);
+        }
+        return balance;
+    }
+
+    private boolean hasPending() {
+        return !pendingTransfers.isEmpty();
+    }
+
+    private void flush() {
+        if (!hasPending()) {
+            return;
+        }
+        List<ShardCommand.Transfer> batch = pendingTransfers;
+        pendingTransfers = new ArrayList<>(batchSize);
+        lastFlush = CompletableFuture.runAsync(() -> engine.persist(batch), persister);
+    }
+
+    private void idle() {
+        sleeping = true;
+        if (running && mailbox.isEmpty() && transfers.isEmpty()) {
+            LockSupport.park(this);
+        }
+        sleeping = false;
+    }
+
+    private void wake() {
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
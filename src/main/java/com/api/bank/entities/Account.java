@@ -1,14 +1,15 @@
 package com.api.bank.entities;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import com.api.bank.entities.user.User;
+import com.api.bank.services.AccountDirectoryListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -19,22 +20,39 @@ import java.util.UUID;
 @NoArgsConstructor
 @EqualsAndHashCode
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, AccountDirectoryListener.class})
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(unique = true, nullable = false)
     private String number;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
     @Column(nullable = false)
-    private BigDecimal balance;
+    private Money balance;
+
+    /**
+     * Id of the last ledger posting folded into {@code balance}. Only meaningful in
+     * snapshot balance mode, where transfers append postings without touching the row.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @Column(nullable = false)
+    private long ledgerCheckpoint = 0L;
+
+    /**
+     * Number of sub-balance slots credits are spread over, or 0 for a regular account.
+     * See {@link com.api.bank.services.HotAccountService}.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private int hotSlots = 0;
 
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -0,0 +1,35 @@
+package com.api.bank.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * One sub-balance of a hot account. Credits to a hot account land on one of its
+ * slots instead of its row, so concurrent deposits lock different rows. The
+ * account's balance is its own column plus the sum of its slots.
+ */
+@Entity(name = "account_slots")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_slots_slot", columnNames = {"account_id", "slot"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountSlot {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false)
+    private Money balance;
+}
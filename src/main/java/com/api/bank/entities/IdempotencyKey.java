@@ -0,0 +1,50 @@
+package com.api.bank.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Persistent record of an {@code Idempotency-Key} seen on {@code POST /transactions/}.
+ * A row without {@code transactionId} is a claim for a transfer that is still running.
+ */
+@Entity(name = "idempotency_keys")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class IdempotencyKey {
+
+    public static final int MAX_CLIENT_KEY_LENGTH = 255;
+
+    /**
+     * The client key scoped by user id, so two users can never collide: a 36 character
+     * user id, a colon and the client key.
+     */
+    @Id
+    @Column(length = 37 + MAX_CLIENT_KEY_LENGTH)
+    private String id;
+
+    @Column(nullable = false)
+    private String requestHash;
+
+    private UUID transactionId;
+
+    /**
+     * Lets Spring Data treat a fresh record as new, so a concurrent claim fails on the
+     * primary key instead of being merged over the existing row.
+     */
+    @Version
+    private Long version;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.api.bank.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of the append-only ledger: a signed change to one account's balance.
+ * A transfer writes a negative posting for the source and a positive one for the
+ * destination. Opening balances and manual adjustments have no transaction.
+ */
+@Entity(name = "postings")
+@Table(indexes = @Index(name = "idx_postings_account", columnList = "account_id, id"))
+@Immutable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class Posting {
+
+    // Pooled sequence ids keep the inserts JDBC-batchable.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posting_seq")
+    @SequenceGenerator(name = "posting_seq", sequenceName = "posting_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private Money amount;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -2,16 +2,22 @@ package com.api.bank.entities;
 
 
 import com.api.bank.enums.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity(name = "transactions")
+@Table(indexes = {
+        @Index(name = "idx_transactions_date", columnList = "date_transfer, id"),
+        @Index(name = "idx_transactions_from_date", columnList = "from_account_id, date_transfer, id"),
+        @Index(name = "idx_transactions_to_date", columnList = "to_account_id, date_transfer, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -22,24 +28,36 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id", nullable = false)
     private Account fromAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_account_id", nullable = false)
     private Account toAccount;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     private TransactionStatus status;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String failureReason;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime dateTransfer;
+
+    /**
+     * Scoped {@code Idempotency-Key} the transfer was submitted with, answered in the
+     * database transaction that writes the transfer. Not stored on this table.
+     */
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String idempotencyKey;
 }
@@ -0,0 +1,52 @@
+package com.api.bank.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp, a 12-bit counter
+ * and 62 random bits. Ids sort by creation time, so new rows land at the right edge
+ * of the primary key index instead of on random pages.
+ * <p>
+ * Each thread keeps its own timestamp and counter, so inserts on different threads
+ * share no state. Ids are strictly increasing per thread; ids from different threads
+ * in the same millisecond are told apart by their random bits, as the RFC allows. When
+ * a millisecond runs out of counter values the timestamp is borrowed from the next
+ * one; it catches up with the clock as soon as the burst ends.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7L << 12;
+    private static final long VARIANT = 0x2L << 62;
+    private static final long RANDOM_MASK = (1L << 62) - 1;
+
+    // Unix millis shifted left by COUNTER_BITS, plus the counter, of the thread's last id.
+    private static final ThreadLocal<long[]> lastTick = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static UUID next() {
+        long[] last = lastTick.get();
+        long tick = Math.max(last[0] + 1, System.currentTimeMillis() << COUNTER_BITS);
+        last[0] = tick;
+
+        long mostSigBits = (tick >>> COUNTER_BITS) << 16 | VERSION | (tick & ((1L << COUNTER_BITS) - 1));
+        long leastSigBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
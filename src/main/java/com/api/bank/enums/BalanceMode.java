@@ -0,0 +1,6 @@
+package com.api.bank.enums;
+
+public enum BalanceMode {
+    INLINE,
+    SNAPSHOT
+}
@@ -1,6 +1,7 @@
 package com.api.bank.enums;
 
 public enum TransactionStatus {
+    PENDING,
     COMPLETED,
     FAILED
 }
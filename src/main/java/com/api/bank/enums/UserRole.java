@@ -1,16 +1,34 @@
 package com.api.bank.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+
 public enum UserRole {
-    ADMIN("admin"),
-    USER("user");
+    ADMIN("admin", "ROLE_ADMIN", "ROLE_USER"),
+    USER("user", "ROLE_USER");
 
     private String role;
 
-    UserRole(String role) {
+    private final List<GrantedAuthority> authorities;
+
+    UserRole(String role, String... authorities) {
         this.role = role;
+        this.authorities = Arrays.stream(authorities)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
     }
 
     public String getRole() {
         return role;
     }
+
+    /**
+     * Built once per role; the list is immutable and shared by every principal.
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
 }
@@ -1,11 +1,20 @@
 package com.api.bank.exceptions;
 
 import com.api.bank.exceptions.account.AccountNotFoundException;
+import com.api.bank.exceptions.auth.PasswordHashingBusyException;
+import com.api.bank.exceptions.transaction.IdempotencyKeyInProgressException;
+import com.api.bank.exceptions.transaction.IdempotencyKeyReusedException;
+import com.api.bank.exceptions.transaction.TransactionNotFoundException;
+import com.api.bank.exceptions.transaction.TransferEngineBusyException;
+import com.api.bank.exceptions.transaction.TransferOutcomeUnknownException;
+import com.api.bank.exceptions.transaction.TransferQueueFullException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -93,4 +102,75 @@ public class ErrorHandlingControllerAdvice {
         );
     }
 
+    @ExceptionHandler(TransferEngineBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public CustomErrorType transferEngineBusyException(TransferEngineBusyException e) {
+        log.warn("Transfer engine busy: {}", e.getMessage());
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(TransferOutcomeUnknownException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    @ResponseBody
+    public CustomErrorType transferOutcomeUnknownException(TransferOutcomeUnknownException e) {
+        log.error("Transfer outcome unknown: {}", e.getMessage());
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(TransactionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseBody
+    public CustomErrorType transactionNotFoundException(TransactionNotFoundException e) {
+        log.warn("Transaction not found: ", e);
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(TransferQueueFullException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public CustomErrorType transferQueueFullException(TransferQueueFullException e) {
+        log.warn("Transfer queue full: {}", e.getMessage());
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    @ResponseBody
+    public ResponseEntity<CustomErrorType> passwordHashingBusyException(PasswordHashingBusyException e) {
+        log.warn("Password hashing busy: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(defaultCustomErrorTypeConstruct(
+                        e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ResponseBody
+    public CustomErrorType idempotencyKeyReusedException(IdempotencyKeyReusedException e) {
+        log.warn("Idempotency key reused: {}", e.getMessage());
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public CustomErrorType idempotencyKeyInProgressException(IdempotencyKeyInProgressException e) {
+        log.warn("Idempotency key in progress: {}", e.getMessage());
+        return defaultCustomErrorTypeConstruct(
+                e.getMessage()
+        );
+    }
+
 }
@@ -0,0 +1,15 @@
+package com.api.bank.exceptions.auth;
+
+import com.api.bank.exceptions.BankException;
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingBusyException extends BankException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Too many authentication requests, please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
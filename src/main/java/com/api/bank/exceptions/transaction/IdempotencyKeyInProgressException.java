@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class IdempotencyKeyInProgressException extends BankException {
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still being processed.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class IdempotencyKeyReusedException extends BankException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used with a different request.");
+    }
+}
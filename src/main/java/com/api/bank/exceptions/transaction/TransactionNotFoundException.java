@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class TransactionNotFoundException extends BankException {
+    public TransactionNotFoundException() {
+        super("Transaction not found.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class TransferEngineBusyException extends BankException {
+    public TransferEngineBusyException() {
+        super("The transfer engine is busy, please retry later.");
+    }
+}
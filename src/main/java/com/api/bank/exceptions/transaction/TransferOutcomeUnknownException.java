@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class TransferOutcomeUnknownException extends BankException {
+    public TransferOutcomeUnknownException() {
+        super("The transfer outcome is not known yet, check the transaction history before retrying.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.bank.exceptions.transaction;
+
+import com.api.bank.exceptions.BankException;
+
+public class TransferQueueFullException extends BankException {
+    public TransferQueueFullException() {
+        super("Too many pending transfers, please retry later.");
+    }
+}
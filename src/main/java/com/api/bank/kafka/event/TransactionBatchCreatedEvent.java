@@ -0,0 +1,12 @@
+package com.api.bank.kafka.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionBatchCreatedEvent {
+    private List<TransactionEvent> transactionEvents;
+}
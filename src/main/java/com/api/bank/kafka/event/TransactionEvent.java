@@ -1,10 +1,11 @@
 package com.api.bank.kafka.event;
 
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
@@ -12,6 +13,15 @@ import java.math.BigDecimal;
 public class TransactionEvent {
     private String fromAccount;
     private String toAccount;
-    private BigDecimal amount;
+    private Money amount;
     private String status;
+
+    public static TransactionEvent from(Transaction transaction) {
+        return new TransactionEvent(
+                transaction.getFromAccount().getNumber(),
+                transaction.getToAccount().getNumber(),
+                transaction.getAmount(),
+                transaction.getStatus().name()
+        );
+    }
 }
@@ -1,19 +1,76 @@
 package com.api.bank.kafka.event;
 
 import com.api.bank.kafka.producer.TransactionProducer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publishes committed transactions to Kafka.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} each publish runs on its own virtual
+ * thread, so a send blocked on broker metadata or a full buffer no longer holds the
+ * thread that committed (a request thread or an engine loop). Otherwise it runs on the
+ * committing thread, as it always has, and a failed send propagates to it. A failed
+ * send on a virtual thread can only be logged.
+ */
+@Slf4j
 @Component
 public class TransactionEventListener {
 
     @Autowired
     private TransactionProducer transactionProducer;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Null when publishing on the committing thread.
+    private ExecutorService publisher;
+
+    @PostConstruct
+    void start() {
+        if (virtualThreads) {
+            publisher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("event-publisher-", 0).factory());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        // Lets publishes already handed off finish before the producer is closed.
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+
     @TransactionalEventListener
     public void handleTransactionCreatedEvent(TransactionCreatedEvent event) {
-        transactionProducer.sendTransactionEvent(event.getTransactionEvent());
+        publish(() -> transactionProducer.sendTransactionEvent(event.getTransactionEvent()));
+    }
+
+    @TransactionalEventListener
+    public void handleTransactionBatchCreatedEvent(TransactionBatchCreatedEvent event) {
+        publish(() -> transactionProducer.sendTransactionEvents(event.getTransactionEvents()));
     }
-}
 
+    private void publish(Runnable send) {
+        if (publisher == null) {
+            send.run();
+            return;
+        }
+        publisher.execute(() -> {
+            // The committing thread has moved on, so there is no caller left to rethrow to.
+            try {
+                send.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to publish transaction event", e);
+            }
+        });
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class TransactionProducer {
 
@@ -16,4 +18,12 @@ public class TransactionProducer {
     public void sendTransactionEvent(TransactionEvent event) {
         kafkaTemplate.send(TOPIC, event);
     }
+
+    /**
+     * Hands every event to the producer before flushing once, so they leave as a few large batches.
+     */
+    public void sendTransactionEvents(List<TransactionEvent> events) {
+        events.forEach(event -> kafkaTemplate.send(TOPIC, event));
+        kafkaTemplate.flush();
+    }
 }
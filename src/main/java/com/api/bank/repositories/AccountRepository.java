@@ -1,11 +1,61 @@
 package com.api.bank.repositories;
 
 import com.api.bank.entities.Account;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * {@code Account.user} is lazy; every lookup that hands accounts to the transfer rules or
+ * to response mapping fetches the owner in the same statement.
+ */
 public interface AccountRepository extends JpaRepository<Account, UUID> {
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Account> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Account> findById(UUID id);
+
+    @EntityGraph(attributePaths = "user")
     Optional<Account> findByNumber(String number);
+
+    @EntityGraph(attributePaths = "user")
+    List<Account> findByNumberIn(Collection<String> numbers);
+
+    /**
+     * Subtracts {@code amount}, in minor units, only if the balance covers it. Returns the number of
+     * updated rows, so {@code 0} means the account is missing or the balance is insufficient.
+     * Native because HQL arithmetic does not apply the {@code Money} converter.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update accounts set balance = balance - :amount, updated_at = :now " +
+            "where number = :number and balance >= :amount", nativeQuery = true)
+    int debit(@Param("number") String number, @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update accounts set balance = balance + :amount, updated_at = :now where number = :number",
+            nativeQuery = true)
+    int credit(@Param("number") String number, @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Adds {@code delta}, in minor units and possibly negative, only if the balance stays
+     * non-negative. {@code 0} updated rows means the account is missing or cannot carry it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update accounts set balance = balance + :delta, updated_at = :now " +
+            "where number = :number and balance + :delta >= 0", nativeQuery = true)
+    int adjust(@Param("number") String number, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    boolean existsByNumber(String number);
 }
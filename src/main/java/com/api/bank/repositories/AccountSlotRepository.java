@@ -0,0 +1,44 @@
+package com.api.bank.repositories;
+
+import com.api.bank.entities.AccountSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, UUID> {
+
+    List<AccountSlot> findByAccountId(UUID accountId);
+
+    /**
+     * Sum, in minor units, of the slots of an account.
+     */
+    @Query(value = "select coalesce(sum(balance), 0) from account_slots where account_id = :accountId",
+            nativeQuery = true)
+    long sumByAccountId(@Param("accountId") UUID accountId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update account_slots set balance = balance + :amount where account_id = :accountId and slot = :slot",
+            nativeQuery = true)
+    int credit(@Param("accountId") UUID accountId, @Param("slot") int slot, @Param("amount") long amount);
+
+    /**
+     * Moves {@code amount} out of a slot only if the slot still holds it. Leaves the
+     * persistence context alone, so the caller's managed account stays usable.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update account_slots set balance = balance - :amount " +
+            "where account_id = :accountId and slot = :slot and balance >= :amount", nativeQuery = true)
+    int take(@Param("accountId") UUID accountId, @Param("slot") int slot, @Param("amount") long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update account_slots set balance = 0", nativeQuery = true)
+    int clearAll();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from account_slots where account_id = :accountId", nativeQuery = true)
+    int deleteByAccountId(@Param("accountId") UUID accountId);
+}
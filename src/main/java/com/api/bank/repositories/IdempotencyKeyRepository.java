@@ -0,0 +1,27 @@
+package com.api.bank.repositories;
+
+import com.api.bank.entities.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from idempotency_keys k where k.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Answers a claimed key with its transaction. Runs in the caller's transaction, so the
+     * key is answered exactly when the transfer commits.
+     */
+    @Modifying
+    @Query("update idempotency_keys k set k.transactionId = :transactionId, k.version = k.version + 1 where k.id = :id and k.transactionId is null")
+    int answer(@Param("id") String id, @Param("transactionId") UUID transactionId);
+}
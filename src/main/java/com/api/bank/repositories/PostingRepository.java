@@ -0,0 +1,92 @@
+package com.api.bank.repositories;
+
+import com.api.bank.entities.Posting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface PostingRepository extends JpaRepository<Posting, Long> {
+
+    /**
+     * Sum, in minor units, of the postings of an account newer than {@code afterId}.
+     */
+    @Query(value = "select coalesce(sum(amount), 0) from postings where account_id = :accountId and id > :afterId",
+            nativeQuery = true)
+    long sumAfter(@Param("accountId") UUID accountId, @Param("afterId") long afterId);
+
+    /**
+     * Numbers of the accounts with postings not yet folded into their snapshot.
+     */
+    @Query(value = "select distinct a.number from accounts a join postings p on p.account_id = a.id " +
+            "where p.id > a.ledger_checkpoint", nativeQuery = true)
+    List<String> findAccountsBehindCheckpoint();
+
+    /**
+     * Folds every posting of the account into its snapshot. The caller must hold the
+     * account's lock, so no posting can be appended while the statement runs.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update accounts a set " +
+            "balance = a.balance + (select coalesce(sum(p.amount), 0) from postings p " +
+            "where p.account_id = a.id and p.id > a.ledger_checkpoint), " +
+            "ledger_checkpoint = coalesce((select max(p.id) from postings p where p.account_id = a.id), a.ledger_checkpoint) " +
+            "where a.number = :number", nativeQuery = true)
+    int checkpoint(@Param("number") String number);
+
+    /**
+     * Recomputes every balance as the sum of all its postings, in one set-based statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update accounts a set " +
+            "balance = (select coalesce(sum(p.amount), 0) from postings p where p.account_id = a.id), " +
+            "ledger_checkpoint = (select coalesce(max(p.id), 0) from postings p where p.account_id = a.id)",
+            nativeQuery = true)
+    int rebuildBalances();
+
+    /**
+     * One page of an account statement, in posting order, after posting {@code afterId}.
+     * Every row also carries the opening balance, the balance just before the page. It is
+     * derived from the account's latest snapshot instead of summing the whole history:
+     * in snapshot mode the balance column as of {@code ledger_checkpoint}, otherwise the
+     * live balance (row plus hot slots), which already includes every posting. Only the
+     * postings between that anchor and the page are read. The page opens before the first
+     * posting from {@code from} on, so an empty page still returns one row, with no
+     * posting, whose opening balance is the balance as of {@code from}.
+     * The counterparty is the other side of the transfer.
+     */
+    // The anchor is a derived table rather than its own CTE: H2 reuses the result of a CTE
+    // read by another CTE across executions of the statement, whatever the parameters.
+    @Query(value = "with page as (" +
+            "select p.id, p.transaction_id, p.amount, p.created_at from postings p " +
+            "where p.account_id = :accountId and p.created_at >= :from and p.created_at < :to and p.id > :afterId " +
+            "order by p.id limit :limit), " +
+            "opening as (" +
+            "select anchor.balance + coalesce(sum(case when o.id <= anchor.boundary then o.amount else -o.amount end), 0) as amount " +
+            "from (select case when :snapshot then a.balance " +
+            "else a.balance + coalesce((select sum(s.balance) from account_slots s where s.account_id = a.id), 0) end as balance, " +
+            "case when :snapshot then a.ledger_checkpoint else " + Long.MAX_VALUE + " end as posting_id, " +
+            "coalesce((select min(f.id) from postings f " +
+            "where f.account_id = a.id and f.created_at >= :from and f.id > :afterId), " + Long.MAX_VALUE + ") - 1 as boundary " +
+            "from accounts a where a.id = :accountId) anchor " +
+            "left join postings o on o.account_id = :accountId " +
+            "and o.id > least(anchor.posting_id, anchor.boundary) and o.id <= greatest(anchor.posting_id, anchor.boundary) " +
+            "group by anchor.balance) " +
+            "select page.id as id, cast(page.transaction_id as varchar(36)) as transactionId, c.number as counterparty, " +
+            "page.created_at as createdAt, page.amount as amount, opening.amount as opening, " +
+            "opening.amount + sum(page.amount) over (order by page.id) as balance " +
+            "from opening left join page on true " +
+            "left join transactions t on t.id = page.transaction_id " +
+            "left join accounts c on c.id = case when t.from_account_id = :accountId then t.to_account_id else t.from_account_id end " +
+            "order by page.id", nativeQuery = true)
+    List<StatementLine> findStatementPage(@Param("accountId") UUID accountId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("afterId") long afterId,
+                                          @Param("limit") int limit,
+                                          @Param("snapshot") boolean snapshot);
+}
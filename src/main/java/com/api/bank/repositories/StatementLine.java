@@ -0,0 +1,25 @@
+package com.api.bank.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@link PostingRepository#findStatementPage}. Amounts are in minor units; the
+ * transaction id comes back as text, since native queries do not map UUID columns.
+ * The posting columns are null on the single row of an empty page.
+ */
+public interface StatementLine {
+
+    Long getId();
+
+    String getTransactionId();
+
+    String getCounterparty();
+
+    LocalDateTime getCreatedAt();
+
+    Long getAmount();
+
+    Long getOpening();
+
+    Long getBalance();
+}
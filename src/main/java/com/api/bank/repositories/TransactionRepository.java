@@ -1,12 +1,53 @@
 package com.api.bank.repositories;
 
-import com.api.bank.entities.Account;
+import com.api.bank.dtos.TransactionExportRow;
 import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
-    List<Transaction> findByFromAccountOrToAccount(Account fromAccount, Account toAccount);
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionRepositoryCustom {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * A transaction with both accounts, for callers that read them after the session is gone.
+     */
+    @EntityGraph(attributePaths = {"fromAccount", "toAccount"})
+    Optional<Transaction> findWithAccountsById(UUID id);
+
+    /**
+     * Moves every transaction still in {@code from} and created before {@code threshold}
+     * to {@code to}, with {@code reason} as its failure reason.
+     */
+    @Transactional
+    @Modifying
+    @Query("update transactions t set t.status = :to, t.failureReason = :reason " +
+            "where t.status = :from and t.dateTransfer < :threshold")
+    int settleCreatedBefore(@Param("from") TransactionStatus from, @Param("to") TransactionStatus to,
+                            @Param("reason") String reason, @Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Every transaction as export rows, oldest first. Forward-only and fetched in chunks;
+     * must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.api.bank.dtos.TransactionExportRow(t.id, t.dateTransfer, f.number, d.number, t.amount, t.status, t.failureReason) " +
+            "from transactions t join t.fromAccount f join t.toAccount d order by t.dateTransfer, t.id")
+    Stream<TransactionExportRow> streamExportRows();
 }
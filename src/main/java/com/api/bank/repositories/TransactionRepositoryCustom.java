@@ -0,0 +1,37 @@
+package com.api.bank.repositories;
+
+import com.api.bank.dtos.TransactionExportRow;
+import com.api.bank.dtos.TransactionResponseDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Up to {@code limit} transactions matching {@code specification}, newest first,
+     * selected straight into response rows: only the transaction columns and the two
+     * account numbers are read, and no entity is loaded.
+     */
+    List<TransactionResponseDTO> findResponses(Specification<Transaction> specification, int limit);
+
+    /**
+     * Same as {@link #findResponses} restricted to transfers sent or received by
+     * {@code account}. The two sides run as one {@code UNION ALL} of ordered, limited
+     * branches, each answered from its own {@code (account, date_transfer, id)} index,
+     * where an {@code OR} over both foreign keys would scan one index and filter.
+     */
+    List<TransactionResponseDTO> findResponsesByAccount(Account account, Specification<Transaction> specification, int limit);
+
+    /**
+     * Export rows of the transfers sent or received by one account, oldest first. Same
+     * {@code UNION ALL} shape as {@link #findResponsesByAccount}, ordered as a whole so
+     * the database can merge the two index ranges. Forward-only and fetched in chunks;
+     * must be consumed inside a transaction and closed.
+     */
+    Stream<TransactionExportRow> streamExportRowsByAccount(UUID accountId);
+}
@@ -0,0 +1,104 @@
+package com.api.bank.repositories;
+
+import com.api.bank.dtos.TransactionExportRow;
+import com.api.bank.dtos.TransactionResponseDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.api.bank.repositories.TransactionSpecifications.sentFrom;
+import static com.api.bank.repositories.TransactionSpecifications.sentTo;
+
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final Comparator<TransactionResponseDTO> NEWEST_FIRST = Comparator
+            .comparing(TransactionResponseDTO::dateTransfer)
+            .thenComparing(TransactionResponseDTO::id)
+            .reversed();
+
+    private static final String EXPORT_COLUMNS =
+            "select t.id id, t.dateTransfer dateTransfer, f.number fromAccount, d.number toAccount, " +
+            "t.amount amount, t.status status, t.failureReason failureReason " +
+            "from transactions t join t.fromAccount f join t.toAccount d ";
+
+    // Sorting the derived table orders the whole union; a trailing order by would only bind to the last branch.
+    private static final String EXPORT_BY_ACCOUNT =
+            "select u.id, u.dateTransfer, u.fromAccount, u.toAccount, u.amount, u.status, u.failureReason from (" +
+            EXPORT_COLUMNS + "where f.id = :accountId " +
+            "union all " +
+            EXPORT_COLUMNS + "where d.id = :accountId" +
+            ") u order by u.dateTransfer, u.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionResponseDTO> findResponses(Specification<Transaction> specification, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        return entityManager.createQuery(responses(cb, specification))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TransactionResponseDTO> findResponsesByAccount(Account account, Specification<Transaction> specification, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<TransactionResponseDTO> sent = responses(cb, specification.and(sentFrom(account)));
+        JpaCriteriaQuery<TransactionResponseDTO> received = responses(cb, specification.and(sentTo(account)));
+        sent.fetch(limit);
+        received.fetch(limit);
+
+        // Each side is an ordered range scan of its own index; the two short lists are merged here.
+        return entityManager.createQuery(cb.unionAll(sent, received))
+                .getResultList()
+                .stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<TransactionExportRow> streamExportRowsByAccount(UUID accountId) {
+        return entityManager.createQuery(EXPORT_BY_ACCOUNT, TransactionExportRow.class)
+                .setParameter("accountId", accountId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(TransactionRepository.EXPORT_FETCH_SIZE))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private JpaCriteriaQuery<TransactionResponseDTO> responses(HibernateCriteriaBuilder cb, Specification<Transaction> specification) {
+        JpaCriteriaQuery<TransactionResponseDTO> query = cb.createQuery(TransactionResponseDTO.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Join<Transaction, Account> fromAccount = root.join("fromAccount");
+        Join<Transaction, Account> toAccount = root.join("toAccount");
+
+        query.select(cb.construct(TransactionResponseDTO.class,
+                        root.get("id"),
+                        fromAccount.get("id"), fromAccount.get("number"),
+                        toAccount.get("id"), toAccount.get("number"),
+                        root.get("amount"),
+                        root.get("status"),
+                        root.get("failureReason"),
+                        root.get("dateTransfer")))
+                .orderBy(cb.desc(root.get("dateTransfer")), cb.desc(root.get("id")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,53 @@
+package com.api.bank.repositories;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Building blocks of the transaction history queries. Each filter is only added when
+ * it is set, so the database sees a plain range on {@code (date_transfer, id)} and can
+ * walk the matching index instead of evaluating {@code :param is null} branches.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> sentFrom(Account account) {
+        return (root, query, cb) -> cb.equal(root.get("fromAccount").get("id"), account.getId());
+    }
+
+    public static Specification<Transaction> sentTo(Account account) {
+        return (root, query, cb) -> cb.equal(root.get("toAccount").get("id"), account.getId());
+    }
+
+    public static Specification<Transaction> dateFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("dateTransfer"), from);
+    }
+
+    public static Specification<Transaction> dateBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("dateTransfer"), to);
+    }
+
+    public static Specification<Transaction> amountAtLeast(Money amount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Money>get("amount"), amount);
+    }
+
+    public static Specification<Transaction> amountAtMost(Money amount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Money>get("amount"), amount);
+    }
+
+    /**
+     * Rows strictly after the cursor in {@code dateTransfer desc, id desc} order.
+     */
+    public static Specification<Transaction> after(LocalDateTime dateTransfer, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("dateTransfer"), dateTransfer),
+                cb.and(cb.equal(root.<LocalDateTime>get("dateTransfer"), dateTransfer), cb.lessThan(root.<UUID>get("id"), id)));
+    }
+}
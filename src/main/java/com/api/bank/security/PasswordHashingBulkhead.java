@@ -0,0 +1,98 @@
+package com.api.bank.security;
+
+import com.api.bank.exceptions.auth.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool for the BCrypt work of {@code /auth/login} and {@code /auth/register}.
+ * <p>
+ * Hashing runs on a few threads of its own behind a bounded queue. The calling request
+ * thread waits for its hash, so a burst of logins can tie up at most
+ * {@code threads + queue-capacity} request threads; anything beyond that is refused at
+ * once with {@link PasswordHashingBusyException} instead of queueing in front of transfers.
+ */
+@Slf4j
+@Component
+public class PasswordHashingBulkhead {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer hashTimer;
+    private final Counter rejections;
+
+    public PasswordHashingBulkhead(@Value("${bank.auth.hashing.threads:0}") int threads,
+                                   @Value("${bank.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${bank.auth.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                   MeterRegistry meterRegistry) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "password-hashing-" + sequence.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder("bank.auth.hashing.duration")
+                .description("Time spent hashing or checking a password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejections = Counter.builder("bank.auth.hashing.rejections")
+                .description("Authentication requests refused because the hashing pool was full")
+                .register(meterRegistry);
+        Gauge.builder("bank.auth.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("bank.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(meterRegistry);
+        log.info("Password hashing bulkhead started with {} threads and {} queued hashes", size, queueCapacity);
+    }
+
+    /**
+     * Runs {@code work} on the hashing pool and waits for it. Runtime exceptions thrown by
+     * the work, such as a failed authentication, reach the caller unchanged.
+     */
+    public <T> T execute(Supplier<T> work) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> hashTimer.record(work));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            log.warn("Password hashing pool full, refusing request");
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+}
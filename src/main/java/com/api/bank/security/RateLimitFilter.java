@@ -0,0 +1,145 @@
+package com.api.bank.security;
+
+import com.api.bank.concurrency.TokenBucketLimiter;
+import com.api.bank.exceptions.CustomErrorType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limits on the login and transfer endpoints, applied ahead of the
+ * whole Spring Security chain so a request refused by an IP bucket costs no token check,
+ * query or hash.
+ * <p>
+ * {@code POST /auth/login} is limited per client IP. Transfers ({@code POST} under
+ * {@code /transactions}) take a token from the client IP's bucket first, so a flood of
+ * forged or rotating bearer tokens is cut off before any of them is verified, and then
+ * from the bucket of the user the bearer token verifies as. A request whose token does
+ * not verify only counts against its IP and is refused later by {@link SecurityFilter}.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@ConditionalOnProperty(name = "bank.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String TRANSFER_PATH = "/transactions";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenBucketLimiter<String> loginLimiter;
+    private final TokenBucketLimiter<UUID> transferLimiter;
+    private final TokenBucketLimiter<String> transferAddressLimiter;
+    private final TokenService tokenService;
+    private final Counter loginRejections;
+    private final Counter transferRejections;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(@Value("${bank.rate-limit.login.capacity:10}") int loginCapacity,
+                           @Value("${bank.rate-limit.login.refill-period:6s}") Duration loginRefillPeriod,
+                           @Value("${bank.rate-limit.transfer.capacity:20}") int transferCapacity,
+                           @Value("${bank.rate-limit.transfer.refill-period:100ms}") Duration transferRefillPeriod,
+                           @Value("${bank.rate-limit.transfer.address-capacity:100}") int transferAddressCapacity,
+                           @Value("${bank.rate-limit.transfer.address-refill-period:20ms}") Duration transferAddressRefillPeriod,
+                           TokenService tokenService,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.loginLimiter = new TokenBucketLimiter<>(loginCapacity, loginRefillPeriod);
+        this.transferLimiter = new TokenBucketLimiter<>(transferCapacity, transferRefillPeriod);
+        this.transferAddressLimiter = new TokenBucketLimiter<>(transferAddressCapacity, transferAddressRefillPeriod);
+        this.tokenService = tokenService;
+        this.loginRejections = rejections(meterRegistry, "login");
+        this.transferRejections = rejections(meterRegistry, "transfer");
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if ("POST".equals(request.getMethod())) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            if (path.equals(LOGIN_PATH)) {
+                if (!admit(loginLimiter, request.getRemoteAddr(), loginRejections, response)) {
+                    return;
+                }
+            } else if (path.startsWith(TRANSFER_PATH)) {
+                if (!admit(transferAddressLimiter, request.getRemoteAddr(), transferRejections, response)) {
+                    return;
+                }
+                UUID userId = verifiedUserId(request);
+                if (userId != null && !admit(transferLimiter, userId, transferRejections, response)) {
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${bank.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = loginLimiter.evictIdle() + transferLimiter.evictIdle() + transferAddressLimiter.evictIdle();
+        log.debug("Evicted {} idle rate limit buckets, {} remain", evicted,
+                loginLimiter.size() + transferLimiter.size() + transferAddressLimiter.size());
+    }
+
+    private <K> boolean admit(TokenBucketLimiter<K> limiter, K key, Counter rejections, HttpServletResponse response) throws IOException {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return true;
+        }
+        rejections.increment();
+        log.warn("Rate limit exceeded for {}", key);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), CustomErrorType.builder()
+                .timestamp(LocalDateTime.now())
+                .errors(new ArrayList<>())
+                .message("Too many requests, please retry later.")
+                .build());
+        return false;
+    }
+
+    // The principal is handed to SecurityFilter, so the token is still verified once per request.
+    private UUID verifiedUserId(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        UserPrincipal principal = tokenService.validateToken(authorization.substring(BEARER_PREFIX.length()));
+        if (principal == null) {
+            return null;
+        }
+        request.setAttribute(SecurityFilter.VERIFIED_PRINCIPAL, principal);
+        return principal.id();
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("bank.rate-limit.rejections")
+                .description("Requests refused by a rate limit")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+}
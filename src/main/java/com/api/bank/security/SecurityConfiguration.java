@@ -1,5 +1,6 @@
 package com.api.bank.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,10 +28,15 @@ public class SecurityConfiguration {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // Async results are dispatched back after the original request was authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                         .requestMatchers(HttpMethod.GET, "/accounts/").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/transactions/").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/transactions/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/accounts/*/hot-slots").hasRole("ADMIN")
+                        .requestMatchers("/ledger/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
@@ -1,7 +1,6 @@
 package com.api.bank.security;
 
 
-import com.api.bank.repositories.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -18,20 +16,25 @@ import java.io.IOException;
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    /** Request attribute under which an earlier filter leaves the principal it verified the bearer token as. */
+    static final String VERIFIED_PRINCIPAL = SecurityFilter.class.getName() + ".VERIFIED_PRINCIPAL";
+
     @Autowired
     TokenService tokenService;
-    @Autowired
-    UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null){
-            var email = tokenService.validateToken(token);
-            UserDetails user = userRepository.findByEmail(email);
-
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            // The principal comes from the signed claims alone, so authenticating costs no query.
+            var principal = request.getAttribute(VERIFIED_PRINCIPAL) instanceof UserPrincipal verified
+                    ? verified
+                    : tokenService.validateToken(token);
+            if (principal != null) {
+                // The token is kept as credentials so per-session checks can be tied to it.
+                var authentication = new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
@@ -1,29 +1,66 @@
 package com.api.bank.security;
 
 import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the API's JWTs.
+ * <p>
+ * The algorithm and the verifier are built once and shared, both are thread-safe.
+ * A client sends the same token on every request, so verified tokens are kept in a
+ * bounded cache keyed by the token itself: a repeated token costs one map lookup instead
+ * of a decode, an HMAC and a JSON parse. Each entry expires together with its token.
+ */
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "bank-auth-api";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<String, VerifiedToken> verified;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.cache-size:10000}") long cacheSize) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .withClaimPresence(USER_ID_CLAIM)
+                .withClaimPresence(ROLE_CLAIM)
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((String key, VerifiedToken token) ->
+                        Duration.between(Instant.now(), token.expiresAt())))
+                .build();
+    }
 
     public String generateToken(User user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             String token = JWT.create()
-                    .withIssuer("bank-auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
+                    .withClaim(USER_ID_CLAIM, user.getId().toString())
+                    .withClaim(ROLE_CLAIM, (user.getRole() == UserRole.ADMIN ? UserRole.ADMIN : UserRole.USER).name())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
             return token;
@@ -32,20 +69,36 @@ public class TokenService {
         }
     }
 
-    public String validateToken(String token){
+    /**
+     * The caller described by a valid token, or {@code null} when the token is invalid,
+     * expired or was issued before it carried the id and role claims.
+     */
+    public UserPrincipal validateToken(String token){
+        VerifiedToken cached = verified.getIfPresent(token);
+        // The cache may hand out an entry in the instant it expires, so the expiry is rechecked.
+        if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+            return cached.principal();
+        }
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("bank-auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException exception){
-            return "";
+            DecodedJWT jwt = verifier.verify(token);
+            UserPrincipal principal = new UserPrincipal(
+                    UUID.fromString(jwt.getClaim(USER_ID_CLAIM).asString()),
+                    jwt.getSubject(),
+                    UserRole.valueOf(jwt.getClaim(ROLE_CLAIM).asString()));
+            if (jwt.getExpiresAtAsInstant() != null) {
+                verified.put(token, new VerifiedToken(principal, jwt.getExpiresAtAsInstant()));
+            }
+            return principal;
+        } catch (JWTVerificationException | IllegalArgumentException exception){
+            return null;
         }
     }
 
     private Instant genExpirationDate(){
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
+
+    private record VerifiedToken(UserPrincipal principal, Instant expiresAt) {
+    }
 }
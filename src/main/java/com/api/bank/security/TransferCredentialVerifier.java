@@ -0,0 +1,107 @@
+package com.api.bank.security;
+
+import com.api.bank.entities.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Verifies the owner password sent with each transfer without paying BCrypt every time.
+ * <p>
+ * After a successful BCrypt check, an HMAC of the password and the stored hash is kept
+ * for a short window, keyed by user and by the JWT of the session. A later transfer in
+ * the same session with the same password only recomputes the HMAC. Anything else,
+ * including a wrong password, still goes through BCrypt, so guessing costs the same.
+ * The HMAC key is random per process and never leaves memory.
+ */
+@Slf4j
+@Component
+public class TransferCredentialVerifier {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder passwordEncoder;
+    private final SecretKeySpec key;
+    private final Cache<SessionKey, byte[]> verified;
+
+    public TransferCredentialVerifier(PasswordEncoder passwordEncoder,
+                                      @Value("${bank.transaction.credential-cache.ttl:5m}") Duration ttl,
+                                      @Value("${bank.transaction.credential-cache.max-size:10000}") long maxSize) {
+        this.passwordEncoder = passwordEncoder;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public boolean matches(User owner, String rawPassword) {
+        String token = currentToken();
+        if (token == null) {
+            return passwordEncoder.matches(rawPassword, owner.getPassword());
+        }
+
+        SessionKey sessionKey = new SessionKey(owner.getId(), digest(token));
+        byte[] proof = proof(rawPassword, owner.getPassword());
+        byte[] cached = verified.getIfPresent(sessionKey);
+        if (cached != null && MessageDigest.isEqual(cached, proof)) {
+            log.debug("Transfer credentials for user {} served from the verification window", owner.getId());
+            return true;
+        }
+
+        boolean matches = passwordEncoder.matches(rawPassword, owner.getPassword());
+        if (matches) {
+            verified.put(sessionKey, proof);
+        }
+        return matches;
+    }
+
+    private String currentToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String token && !token.isEmpty()) {
+            return token;
+        }
+        return null;
+    }
+
+    private byte[] proof(String rawPassword, String storedHash) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record SessionKey(UUID userId, String tokenDigest) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.api.bank.security;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The caller of an authenticated request, rebuilt from the claims of its verified JWT
+ * without touching the database. Code that needs the full {@link User} loads it by
+ * {@link #id()}.
+ */
+public record UserPrincipal(UUID id, String email, UserRole role) implements AuthenticatedPrincipal {
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+}
@@ -0,0 +1,91 @@
+package com.api.bank.services;
+
+import com.api.bank.entities.Account;
+import com.api.bank.repositories.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache from account number to the parts of an account that transfers need
+ * to address it but that almost never change: its id, its owner and its hot slots.
+ * <p>
+ * Balances are never kept here. {@link AccountService} invalidates an entry whenever
+ * one of the cached parts changes, and entries also expire after a while, so a
+ * missed invalidation cannot outlive the TTL. Hit, miss and eviction counts are
+ * published as the {@code cache.*} metrics tagged {@code cache=accounts.by-number}.
+ */
+@Slf4j
+@Service
+public class AccountDirectory {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public AccountDirectory(AccountRepository accountRepository,
+                            @Value("${bank.account.directory.ttl:10m}") Duration ttl,
+                            @Value("${bank.account.directory.max-size:100000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.entries, "accounts.by-number");
+    }
+
+    /**
+     * The entry for {@code number}, loaded from the database on a miss. Unknown numbers
+     * are not cached, so an account created later is found right away.
+     * <p>
+     * The miss is loaded outside the cache rather than through {@code get(key, loader)},
+     * which runs the loader under a map bin lock and so would pin a virtual thread to its
+     * carrier for the whole query. A load may therefore read the account just before a
+     * change commits and finish after that change's {@link #invalidate}; every invalidation
+     * bumps a generation, and a load is only stored if no invalidation happened since it
+     * started, so such a load answers its own caller but is never cached.
+     */
+    public Optional<Entry> find(String number) {
+        Entry entry = entries.getIfPresent(number);
+        if (entry == null) {
+            long startedAt = generation.get();
+            entry = accountRepository.findByNumber(number).map(Entry::of).orElse(null);
+            if (entry != null) {
+                Entry loaded = entry;
+                // Checked and stored under the key's lock, which invalidate also takes to bump the generation.
+                entries.asMap().compute(number, (key, current) -> generation.get() == startedAt ? loaded : current);
+            }
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    public void invalidate(String number) {
+        entries.asMap().compute(number, (key, current) -> {
+            generation.incrementAndGet();
+            return null;
+        });
+        log.debug("Account directory entry for {} invalidated", number);
+    }
+
+    /**
+     * @param hotSlots a stale value is harmless: slots only grow, and a credit to the
+     *                 account row is valid for a hot account too
+     */
+    public record Entry(UUID id, String number, UUID ownerId, int hotSlots) {
+
+        static Entry of(Account account) {
+            return new Entry(account.getId(), account.getNumber(), account.getUser().getId(), account.getHotSlots());
+        }
+    }
+}
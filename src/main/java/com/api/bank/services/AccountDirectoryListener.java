@@ -0,0 +1,24 @@
+package com.api.bank.services;
+
+import com.api.bank.entities.Account;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the {@link AccountDirectory} entry of every removed account, including removals
+ * that do not go through {@link AccountService}.
+ */
+@Component
+public class AccountDirectoryListener {
+
+    // Resolved lazily: the listener is created along with the entity manager factory.
+    @Autowired
+    private ObjectProvider<AccountDirectory> accountDirectory;
+
+    @PostRemove
+    void removed(Account account) {
+        this.accountDirectory.ifAvailable(directory -> directory.invalidate(account.getNumber()));
+    }
+}
@@ -1,23 +1,36 @@
 package com.api.bank.services;
 
+import com.api.bank.concurrency.AccountLockManager;
 import com.api.bank.dtos.AccountPostDTO;
 import com.api.bank.dtos.AccountUpdateDTO;
+import com.api.bank.dtos.HotSlotsDTO;
+import com.api.bank.engine.TransferEngine;
 import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
 import com.api.bank.entities.user.User;
+import com.api.bank.exceptions.BankException;
 import com.api.bank.exceptions.account.AccountNotFoundException;
 import com.api.bank.exceptions.account.UnauthorizedAccountException;
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
 import com.api.bank.repositories.AccountRepository;
 import com.api.bank.repositories.UserRepository;
+import com.api.bank.security.UserPrincipal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,26 +42,52 @@ public class AccountService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Resolved lazily: the engines write through AccountService themselves.
+    @Autowired
+    private ObjectProvider<TransferEngine> transferEngine;
+
     public List<Account> getAccounts() {
         log.info("Fetching all accounts");
         List<Account> accounts = this.accountRepository.findAll();
+        accounts.forEach(this::present);
         log.debug("Found {} accounts", accounts.size());
         return accounts;
     }
 
     public Account createAccount(AccountPostDTO accountPostDTO) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        String username = principal.email();
         log.info("Creating account for user: {}", username);
 
-        User user = (User) userRepository.findByEmail(username);
+        // Only the foreign key is needed; the owner row is loaded if the response reads it.
+        User user = this.userRepository.getReferenceById(principal.id());
 
         Account account = Account.builder()
                 .number(accountPostDTO.getNumber())
-                .balance(accountPostDTO.getBalance())
+                .balance(Money.of(accountPostDTO.getBalance()))
                 .user(user)
                 .build();
 
-        this.accountRepository.save(account);
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.accountRepository.saveAndFlush(account);
+            // The opening balance is the first posting of the account and already part of its snapshot.
+            account.setLedgerCheckpoint(this.ledgerService.recordAdjustment(account, account.getBalance()).getId());
+        });
 
         log.info("Account created with number: {} for user: {}", account.getNumber(), username);
         return account;
@@ -65,7 +104,7 @@ public class AccountService {
         checkAccountPermission(account);
 
         log.debug("Account found: {} for user: {}", account.getNumber(), account.getUser().getUsername());
-        return account;
+        return present(account);
     }
 
     public Account getAccountByNumber(String number) {
@@ -78,6 +117,33 @@ public class AccountService {
         return account;
     }
 
+    /**
+     * The account to address as the destination of a transfer, resolved through the
+     * {@link AccountDirectory} without a query on a hit. The returned account is not
+     * managed and carries no balance: only its id, number, owner reference and hot slots
+     * are set, which is all a credit needs.
+     */
+    public Account getAccountReference(String number) {
+        AccountDirectory.Entry entry = this.accountDirectory.find(number).orElseThrow(() -> {
+            log.warn("Account not found with number: {}", number);
+            return new AccountNotFoundException();
+        });
+        return Account.builder()
+                .id(entry.id())
+                .number(entry.number())
+                .user(this.userRepository.getReferenceById(entry.ownerId()))
+                .hotSlots(entry.hotSlots())
+                .build();
+    }
+
+    public Map<String, Account> getAccountsByNumbers(Collection<String> numbers) {
+        log.info("Fetching {} accounts by number", numbers.size());
+        Map<String, Account> accounts = this.accountRepository.findByNumberIn(numbers).stream()
+                .collect(Collectors.toMap(Account::getNumber, Function.identity()));
+        log.debug("Found {} of {} accounts", accounts.size(), numbers.size());
+        return accounts;
+    }
+
     public void deleteAccount(String id) {
         log.info("Deleting account with ID: {}", id);
         Account account = this.accountRepository.findById(UUID.fromString(id))
@@ -88,7 +154,12 @@ public class AccountService {
 
         checkAccountPermission(account);
 
-        this.accountRepository.delete(account);
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.hotAccountService.deleteSlots(account);
+            this.accountRepository.delete(account);
+        });
+        this.accountDirectory.invalidate(account.getNumber());
+        evictFromEngine(account.getNumber());
         log.info("Account with ID: {} deleted successfully", id);
     }
 
@@ -101,47 +172,148 @@ public class AccountService {
                 });
 
         checkAccountPermission(account);
-
-        Optional.ofNullable(accountUpdateDTO.getNumber()).ifPresent(newNumber -> {
-            log.debug("Updating account number from {} to {}", account.getNumber(), newNumber);
-            account.setNumber(newNumber);
-        });
-
-        Optional.ofNullable(accountUpdateDTO.getBalance()).ifPresent(newBalance -> {
-            log.debug("Updating account balance from {} to {}", account.getBalance(), newBalance);
-            account.setBalance(newBalance);
-        });
-
-        Account updatedAccount = this.accountRepository.save(account);
+        String previousNumber = account.getNumber();
+        // Invalidated on both sides of the write, so a lookup racing with it cannot
+        // cache the old number once the update is committed.
+        this.accountDirectory.invalidate(previousNumber);
+
+        // Reloaded under the account lock, so the balance adjustment is computed against
+        // a balance no transfer can change in the meantime.
+        Account updatedAccount = this.accountLockManager.withAccountLocks(previousNumber, previousNumber, () ->
+                this.transactionTemplate.execute(status -> {
+                    Account current = this.accountRepository.findById(account.getId()).orElseThrow(AccountNotFoundException::new);
+                    Money drained = this.hotAccountService.drain(current);
+
+                    Optional.ofNullable(accountUpdateDTO.getNumber()).ifPresent(newNumber -> {
+                        log.debug("Updating account number from {} to {}", current.getNumber(), newNumber);
+                        current.setNumber(newNumber);
+                    });
+
+                    Money balance = this.ledgerService.currentBalance(current).plus(drained);
+                    if (!this.ledgerService.isSnapshotMode()) {
+                        current.setBalance(balance);
+                    }
+                    if (accountUpdateDTO.getBalance() != null) {
+                        Money newBalance = Money.of(accountUpdateDTO.getBalance());
+                        log.debug("Updating account balance from {} to {}", balance, newBalance);
+                        this.ledgerService.recordAdjustment(current, newBalance.minus(balance));
+                        if (!this.ledgerService.isSnapshotMode()) {
+                            current.setBalance(newBalance);
+                        }
+                        balance = newBalance;
+                    }
+
+                    Account saved = this.accountRepository.saveAndFlush(current);
+                    return this.ledgerService.present(saved, balance.plus(this.hotAccountService.slotBalance(saved)));
+                }));
+        this.accountDirectory.invalidate(previousNumber);
+        evictFromEngine(previousNumber);
         log.info("Account with ID: {} updated successfully", id);
         return updatedAccount;
     }
 
-    public void deposit(Account account, BigDecimal value) {
+    /**
+     * Turns the account into a hot account with {@code slots} sub-balances, or grows the
+     * slots of one that already is. Only available on the direct, inline write path,
+     * where deposits go through {@link #deposit}.
+     */
+    public Account configureHotSlots(String id, HotSlotsDTO hotSlotsDTO) {
+        log.info("Configuring {} hot slots for account with ID: {}", hotSlotsDTO.slots(), id);
+        if (this.ledgerService.isSnapshotMode() || this.transferEngine.getIfAvailable() != null) {
+            throw new BankException("Hot accounts require the direct transfer engine and inline balances.");
+        }
+        Account account = this.accountRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> {
+                    log.warn("Account not found with ID: {}", id);
+                    return new AccountNotFoundException();
+                });
+        if (hotSlotsDTO.slots() < account.getHotSlots()) {
+            throw new BankException("The slots of a hot account can only grow.");
+        }
+
+        Account hotAccount = this.accountLockManager.withAccountLocks(account.getNumber(), account.getNumber(), () ->
+                this.transactionTemplate.execute(status -> {
+                    Account current = this.accountRepository.findById(account.getId()).orElseThrow(AccountNotFoundException::new);
+                    this.hotAccountService.addSlots(current, hotSlotsDTO.slots());
+                    current.setHotSlots(Math.max(current.getHotSlots(), hotSlotsDTO.slots()));
+                    return this.accountRepository.saveAndFlush(current);
+                }));
+        this.accountDirectory.invalidate(hotAccount.getNumber());
+        log.info("Account {} now spreads credits over {} slots", hotAccount.getNumber(), hotAccount.getHotSlots());
+        return present(hotAccount);
+    }
+
+    /**
+     * Credits the account with a single UPDATE statement, on a random slot for a hot account.
+     * Must run inside a transaction; the persistence context may be cleared, so {@code account}
+     * is only mirrored for the response.
+     */
+    public void deposit(Account account, Money value) {
         log.info("Depositing amount {} to account number {}", value, account.getNumber());
-        account.setBalance(account.getBalance().add(value));
-        this.accountRepository.save(account);
-        log.debug("New balance after deposit: {}", account.getBalance());
+        if (this.hotAccountService.isHot(account)) {
+            this.hotAccountService.credit(account, value);
+        } else if (this.accountRepository.credit(account.getNumber(), value.minorUnits(), LocalDateTime.now()) == 0) {
+            log.warn("Account not found with number: {}", account.getNumber());
+            throw new AccountNotFoundException();
+        }
+        // A destination from getAccountReference carries no balance to mirror.
+        if (account.getBalance() != null) {
+            account.setBalance(account.getBalance().plus(value));
+            log.debug("New balance after deposit: {}", account.getBalance());
+        }
     }
 
-    public void withdraw(Account account, BigDecimal value) {
+    /**
+     * Debits the account with a guarded UPDATE, so the balance check and the write are one
+     * atomic statement. No affected row means the balance does not cover the amount. For a
+     * hot account the slots are drained into the row before giving up; the caller must hold
+     * the account's lock.
+     */
+    public void withdraw(Account account, Money value) {
         log.info("Withdrawing amount {} from account number {}", value, account.getNumber());
-        account.setBalance(account.getBalance().subtract(value));
-        this.accountRepository.save(account);
+        if (this.accountRepository.debit(account.getNumber(), value.minorUnits(), LocalDateTime.now()) == 0
+                && !drainAndDebit(account, value)) {
+            log.warn("Insufficient balance in account {} for amount {}", account.getNumber(), value);
+            throw new InsufficientBalanceException();
+        }
+        account.setBalance(account.getBalance().minus(value));
         log.debug("New balance after withdrawal: {}", account.getBalance());
     }
 
+    private boolean drainAndDebit(Account account, Money value) {
+        Money drained = this.hotAccountService.drain(account);
+        if (drained.equals(Money.ZERO)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        this.accountRepository.credit(account.getNumber(), drained.minorUnits(), now);
+        return this.accountRepository.debit(account.getNumber(), value.minorUnits(), now) == 1;
+    }
+
+    /**
+     * Shows the full balance: the ledger's view of the account plus the slots of a hot account.
+     */
+    private Account present(Account account) {
+        if (!this.hotAccountService.isHot(account)) {
+            return this.ledgerService.present(account);
+        }
+        return this.ledgerService.present(account,
+                this.ledgerService.currentBalance(account).plus(this.hotAccountService.slotBalance(account)));
+    }
+
+    private void evictFromEngine(String number) {
+        this.transferEngine.ifAvailable(engine -> engine.evict(number));
+    }
+
     private void checkAccountPermission(Account account) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        boolean isOwner = account.getUser().getId().equals(user.getId());
-        boolean isAdmin = user.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        boolean isOwner = account.getUser().getId().equals(user.id());
 
-        log.debug("Checking permissions for user: {} on account: {}", user.getUsername(), account.getNumber());
+        log.debug("Checking permissions for user: {} on account: {}", user.email(), account.getNumber());
 
-        if (!isOwner && !isAdmin) {
-            log.warn("User {} unauthorized to access account {}", user.getUsername(), account.getNumber());
+        if (!isOwner && !user.isAdmin()) {
+            log.warn("User {} unauthorized to access account {}", user.email(), account.getNumber());
             throw new UnauthorizedAccountException();
         }
     }
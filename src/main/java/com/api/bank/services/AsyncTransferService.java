@@ -0,0 +1,181 @@
+package com.api.bank.services;
+
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.dtos.TransactionStatusDTO;
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.transaction.TransactionNotFoundException;
+import com.api.bank.exceptions.transaction.TransferQueueFullException;
+import com.api.bank.exceptions.transaction.UnauthorizedTransactionException;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts transfers for {@code POST /transactions/async}.
+ * <p>
+ * The request thread only loads the accounts, runs the in-memory rules and stores the
+ * transaction as {@link TransactionStatus#PENDING}. Password verification and the write
+ * run later on a virtual thread, under the caller's security context. At most
+ * {@code queue-capacity} transfers may be pending at once. Beyond that, submissions are
+ * refused with {@link TransferQueueFullException} instead of queueing without bound.
+ * {@code workers} caps how many of them hit the database at the same time.
+ * <p>
+ * Work in flight only lives in this process. On startup, transfers a previous process
+ * accepted but never finished are failed (see {@link #recoverPending()}).
+ */
+@Slf4j
+@Service
+public class AsyncTransferService {
+
+    private static final String INTERRUPTED_REASON = "The transfer was interrupted by a restart before it ran, please submit it again.";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${bank.transaction.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${bank.transaction.async.workers:32}")
+    private int workerCount;
+
+    @Value("${bank.transaction.async.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    private final Map<UUID, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private Semaphore admissions;
+    private Semaphore workers;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        this.admissions = new Semaphore(queueCapacity);
+        this.workers = new Semaphore(workerCount);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("transfer-async-", 0).factory());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Fails every {@link TransactionStatus#PENDING} transaction created before this process
+     * started. They cannot be dispatched again: the password they are verified with was
+     * never stored. Nothing was written for them yet, so the client can safely resubmit.
+     * Assumes a single instance serves async transfers, as the in-memory queue already does.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPending() {
+        LocalDateTime processStart = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()), ZoneId.systemDefault());
+        int failed = transactionRepository.settleCreatedBefore(
+                TransactionStatus.PENDING, TransactionStatus.FAILED, INTERRUPTED_REASON, processStart);
+        if (failed > 0) {
+            log.warn("Failed {} asynchronous transfers left pending by a previous process", failed);
+        }
+    }
+
+    public TransactionStatusDTO submit(TransactionPostDTO transactionPostDTO) {
+        if (!admissions.tryAcquire()) {
+            log.warn("Async transfer queue full ({} pending)", queueCapacity);
+            throw new TransferQueueFullException();
+        }
+        try {
+            Transaction transaction = transactionService.precheckTransaction(transactionPostDTO);
+            transaction.setStatus(TransactionStatus.PENDING);
+            Transaction saved = transactionRepository.save(transaction);
+            log.info("Transaction {} accepted for asynchronous processing", saved.getId());
+
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            pending.put(saved.getId(), done);
+            executor.execute(new DelegatingSecurityContextRunnable(() -> process(saved, transactionPostDTO, done)));
+            return TransactionStatusDTO.from(saved);
+        } catch (RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current status. When the transfer is still pending and {@code waitMs}
+     * is positive, the future completes as soon as it settles or when the wait runs out.
+     */
+    public CompletableFuture<TransactionStatusDTO> getStatus(UUID id, long waitMs) {
+        Transaction transaction = transactionRepository.findWithAccountsById(id).orElseThrow(TransactionNotFoundException::new);
+        checkStatusPermission(transaction);
+
+        TransactionStatusDTO current = TransactionStatusDTO.from(transaction);
+        CompletableFuture<Void> done = pending.get(id);
+        if (current.status() != TransactionStatus.PENDING || waitMs <= 0 || done == null) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return done.thenApply(ignored -> transactionRepository.findById(id).map(TransactionStatusDTO::from).orElse(current))
+                .completeOnTimeout(current, Math.min(waitMs, maxWaitMs), TimeUnit.MILLISECONDS);
+    }
+
+    private void process(Transaction transaction, TransactionPostDTO transactionPostDTO, CompletableFuture<Void> done) {
+        UUID id = transaction.getId();
+        try {
+            workers.acquire();
+            try {
+                transactionService.completeTransaction(transaction, transactionPostDTO);
+                log.info("Asynchronous transaction {} completed", id);
+            } finally {
+                workers.release();
+            }
+        } catch (BankException e) {
+            log.warn("Asynchronous transaction {} failed: {}", id, e.getMessage());
+            transactionService.failTransaction(id, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            transactionService.failTransaction(id, new BankException().getMessage());
+        } catch (RuntimeException e) {
+            log.error("Asynchronous transaction {} failed unexpectedly", id, e);
+            transactionService.failTransaction(id, new BankException().getMessage());
+        } finally {
+            pending.remove(id);
+            admissions.release();
+            done.complete(null);
+        }
+    }
+
+    private void checkStatusPermission(Transaction transaction) {
+        UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        boolean isParty = transaction.getFromAccount().getUser().getId().equals(user.id())
+                || transaction.getToAccount().getUser().getId().equals(user.id());
+
+        if (!isParty && !user.isAdmin()) {
+            log.warn("User {} unauthorized to read transaction {}", user.email(), transaction.getId());
+            throw new UnauthorizedTransactionException();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.api.bank.services;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.AccountSlot;
+import com.api.bank.entities.Money;
+import com.api.bank.exceptions.account.AccountNotFoundException;
+import com.api.bank.repositories.AccountSlotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sub-balance slots of hot accounts, such as merchants and fee collectors that
+ * receive a large share of all transfers.
+ * <p>
+ * A credit to a hot account updates one of its K slots, picked at random, instead of
+ * the account row, so concurrent deposits contend on K rows rather than one. Debits
+ * still go against the row. When the row alone does not cover one, the slots are
+ * drained into it first. Slots are never removed while the account exists, so a
+ * credit never misses its slot, and their number can only grow.
+ */
+@Slf4j
+@Service
+public class HotAccountService {
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    public boolean isHot(Account account) {
+        return account.getHotSlots() > 0;
+    }
+
+    /**
+     * Credits a random slot of a hot account. Must run inside a transaction.
+     */
+    public void credit(Account account, Money value) {
+        int slot = ThreadLocalRandom.current().nextInt(account.getHotSlots());
+        if (this.accountSlotRepository.credit(account.getId(), slot, value.minorUnits()) == 0) {
+            log.warn("Slot {} not found for hot account {}", slot, account.getNumber());
+            throw new AccountNotFoundException();
+        }
+        log.debug("Credited {} to slot {} of hot account {}", value, slot, account.getNumber());
+    }
+
+    /**
+     * Empties the slots of a hot account and returns what they held; the caller adds it
+     * to the account row in the same transaction. The caller must hold the account's
+     * lock. Credits landing meanwhile stay in their slot, since each slot only gives up
+     * the amount it was read with.
+     */
+    public Money drain(Account account) {
+        if (!isHot(account)) {
+            return Money.ZERO;
+        }
+        long drained = 0;
+        for (AccountSlot slot : this.accountSlotRepository.findByAccountId(account.getId())) {
+            long amount = slot.getBalance().minorUnits();
+            if (amount > 0 && this.accountSlotRepository.take(account.getId(), slot.getSlot(), amount) == 1) {
+                drained += amount;
+            }
+        }
+        log.debug("Drained {} minor units from the slots of hot account {}", drained, account.getNumber());
+        return Money.ofMinor(drained);
+    }
+
+    public Money slotBalance(Account account) {
+        return isHot(account) ? Money.ofMinor(this.accountSlotRepository.sumByAccountId(account.getId())) : Money.ZERO;
+    }
+
+    /**
+     * Creates the missing slots so the account has {@code slots} of them. Must run inside
+     * a transaction; the caller records the new count on the account.
+     */
+    public void addSlots(Account account, int slots) {
+        Set<Integer> existing = this.accountSlotRepository.findByAccountId(account.getId()).stream()
+                .map(AccountSlot::getSlot)
+                .collect(Collectors.toSet());
+        List<AccountSlot> created = new ArrayList<>();
+        IntStream.range(0, slots)
+                .filter(slot -> !existing.contains(slot))
+                .forEach(slot -> created.add(AccountSlot.builder()
+                        .accountId(account.getId())
+                        .slot(slot)
+                        .balance(Money.ZERO)
+                        .build()));
+        this.accountSlotRepository.saveAllAndFlush(created);
+    }
+
+    public void deleteSlots(Account account) {
+        this.accountSlotRepository.deleteByAccountId(account.getId());
+    }
+}
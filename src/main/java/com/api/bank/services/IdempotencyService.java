@@ -0,0 +1,202 @@
+package com.api.bank.services;
+
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.IdempotencyKey;
+import com.api.bank.entities.Transaction;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.transaction.IdempotencyKeyInProgressException;
+import com.api.bank.exceptions.transaction.IdempotencyKeyReusedException;
+import com.api.bank.exceptions.transaction.TransferOutcomeUnknownException;
+import com.api.bank.repositories.IdempotencyKeyRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Makes {@code POST /transactions/} safe to retry with an {@code Idempotency-Key}.
+ * <p>
+ * Completed keys are answered from a bounded in-memory cache, backed by the
+ * {@code idempotency_keys} table. Duplicates arriving while the first request is
+ * still running wait for its result instead of starting another transfer. Another
+ * instance holding the claim gets a 409.
+ * <p>
+ * The key is answered in the database transaction that writes the transfer (see
+ * {@link #answer}), so a committed transfer never leaves its key unanswered. A transfer
+ * rejected with a {@link BankException} rolled back and releases its key, so the client
+ * can retry it. Any other failure leaves the outcome unknown: the key stays claimed and
+ * retries get a 409 until it expires, rather than risk running the transfer twice.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionRepository transactionRepository;
+    private final Duration ttl;
+    private final Cache<String, CompletedKey> completed;
+    private final Map<String, InFlightKey> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              TransactionRepository transactionRepository,
+                              @Value("${bank.transaction.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${bank.transaction.idempotency.cache-size:100000}") long cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionRepository = transactionRepository;
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public Transaction execute(String key, TransactionPostDTO transactionPostDTO, Function<String, Transaction> transfer) {
+        if (key.isBlank() || key.length() > IdempotencyKey.MAX_CLIENT_KEY_LENGTH) {
+            throw new BankException("Idempotency-Key must have between 1 and " + IdempotencyKey.MAX_CLIENT_KEY_LENGTH + " characters.");
+        }
+        UserPrincipal loggedUser = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        String scopedKey = loggedUser.id() + ":" + key;
+        String requestHash = fingerprint(transactionPostDTO);
+
+        CompletedKey done = completed.getIfPresent(scopedKey);
+        if (done != null) {
+            return replay(scopedKey, done, requestHash);
+        }
+
+        InFlightKey mine = new InFlightKey(requestHash, new CompletableFuture<>());
+        InFlightKey running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            log.info("Idempotency key {} already in flight, waiting for its result", scopedKey);
+            checkSameRequest(running.requestHash(), requestHash);
+            return await(running.result());
+        }
+
+        try {
+            Transaction transaction = claimAndRun(scopedKey, requestHash, transfer);
+            mine.result().complete(transaction);
+            return transaction;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    /**
+     * Answers the key {@code transaction} was submitted with. Must be called in the
+     * database transaction that writes it.
+     */
+    public void answer(Transaction transaction) {
+        String scopedKey = transaction.getIdempotencyKey();
+        if (scopedKey != null && idempotencyKeyRepository.answer(scopedKey, transaction.getId()) == 0) {
+            log.warn("Idempotency key {} was no longer claimed when transaction {} was written", scopedKey, transaction.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.transaction.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Transaction claimAndRun(String scopedKey, String requestHash, Function<String, Transaction> transfer) {
+        try {
+            idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                    .id(scopedKey)
+                    .requestHash(requestHash)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Only a row already holding the key means another request claimed it; any
+            // other violation is a failed insert and must not be reported as in progress.
+            IdempotencyKey existing = idempotencyKeyRepository.findById(scopedKey)
+                    .orElseThrow(() -> e);
+            if (existing.getTransactionId() == null) {
+                log.warn("Idempotency key {} is claimed by another request", scopedKey);
+                throw new IdempotencyKeyInProgressException();
+            }
+            CompletedKey done = new CompletedKey(existing.getRequestHash(), existing.getTransactionId());
+            completed.put(scopedKey, done);
+            return replay(scopedKey, done, requestHash);
+        }
+
+        Transaction transaction;
+        try {
+            transaction = transfer.apply(scopedKey);
+        } catch (TransferOutcomeUnknownException e) {
+            log.warn("Transfer for idempotency key {} has an unknown outcome, keeping the key claimed", scopedKey);
+            throw e;
+        } catch (BankException e) {
+            // Rejections are raised before the transfer commits, so nothing was written.
+            idempotencyKeyRepository.deleteById(scopedKey);
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Transfer for idempotency key {} failed without a known outcome, keeping the key claimed", scopedKey, e);
+            throw e;
+        }
+
+        completed.put(scopedKey, new CompletedKey(requestHash, transaction.getId()));
+        return transaction;
+    }
+
+    private Transaction replay(String scopedKey, CompletedKey done, String requestHash) {
+        checkSameRequest(done.requestHash(), requestHash);
+        log.info("Replaying transaction {} for idempotency key {}", done.transactionId(), scopedKey);
+        return transactionRepository.findWithAccountsById(done.transactionId())
+                .orElseThrow(() -> new BankException("The transaction stored for this Idempotency-Key no longer exists."));
+    }
+
+    private void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+    }
+
+    private Transaction await(CompletableFuture<Transaction> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(TransactionPostDTO dto) {
+        String canonical = dto.getFromAccount() + "|" + dto.getToAccount() + "|" + dto.getAmount().stripTrailingZeros().toPlainString();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CompletedKey(String requestHash, UUID transactionId) {
+    }
+
+    private record InFlightKey(String requestHash, CompletableFuture<Transaction> result) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.api.bank.services;
+
+import com.api.bank.concurrency.AccountLockManager;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Posting;
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.BalanceMode;
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
+import com.api.bank.repositories.AccountSlotRepository;
+import com.api.bank.repositories.PostingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only double-entry ledger. Every transfer adds a debit and a credit posting,
+ * and opening balances and manual changes add an adjustment posting, so each balance
+ * can be rebuilt from the ledger alone.
+ * <p>
+ * In {@link BalanceMode#INLINE} mode, the default, {@code Account.balance} is still
+ * updated with every transfer and the postings are an audit trail next to it. In
+ * {@link BalanceMode#SNAPSHOT} mode, transfers only insert postings. The balance column
+ * is then a snapshot, periodically checkpointed, and the current balance is the
+ * snapshot plus the newer postings. Snapshot mode relies on the account locks of the
+ * direct write path to keep check and append atomic. It cannot run with a transfer engine.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bank.ledger.balance-mode:inline}")
+    private BalanceMode balanceMode;
+
+    @Value("${bank.transaction.engine:direct}")
+    private String engine;
+
+    @PostConstruct
+    void checkMode() {
+        if (isSnapshotMode() && !"direct".equals(engine)) {
+            throw new IllegalStateException("bank.ledger.balance-mode=snapshot requires bank.transaction.engine=direct");
+        }
+        log.info("Ledger balance mode: {}", balanceMode);
+    }
+
+    public boolean isSnapshotMode() {
+        return balanceMode == BalanceMode.SNAPSHOT;
+    }
+
+    public void record(Transaction transaction) {
+        this.postingRepository.saveAll(postingsOf(transaction));
+    }
+
+    public void recordAll(List<Transaction> transactions) {
+        List<Posting> postings = new ArrayList<>(transactions.size() * 2);
+        transactions.forEach(transaction -> postings.addAll(postingsOf(transaction)));
+        this.postingRepository.saveAll(postings);
+    }
+
+    /**
+     * Records a balance change that is not a transfer, such as an opening balance.
+     */
+    public Posting recordAdjustment(Account account, Money delta) {
+        return this.postingRepository.save(Posting.builder()
+                .accountId(account.getId())
+                .amount(delta)
+                .build());
+    }
+
+    public Money currentBalance(Account account) {
+        if (!isSnapshotMode()) {
+            return account.getBalance();
+        }
+        return account.getBalance().plus(Money.ofMinor(
+                this.postingRepository.sumAfter(account.getId(), account.getLedgerCheckpoint())));
+    }
+
+    /**
+     * Snapshot mode only: fails unless the current balance covers {@code amount}, and
+     * returns that balance. The caller must hold the account's lock.
+     */
+    public Money ensureCovers(Account account, Money amount) {
+        Money balance = currentBalance(account);
+        if (balance.isLessThan(amount)) {
+            log.warn("Insufficient balance in account {} for amount {}", account.getNumber(), amount);
+            throw new InsufficientBalanceException();
+        }
+        return balance;
+    }
+
+    /**
+     * Shows {@code balance} on the entity for the response. When it is not the stored column,
+     * as in snapshot mode or for a hot account, the entity is detached first, so the value
+     * never flushes over the column.
+     */
+    public Account present(Account account, Money balance) {
+        if (!balance.equals(account.getBalance()) && this.entityManager.contains(account)) {
+            this.entityManager.detach(account);
+        }
+        account.setBalance(balance);
+        return account;
+    }
+
+    public Account present(Account account) {
+        return isSnapshotMode() ? present(account, currentBalance(account)) : account;
+    }
+
+    /**
+     * Folds the postings of every account that has new ones into its snapshot, one
+     * account at a time under its lock, so no transfer can append while it is folded.
+     */
+    @Scheduled(fixedDelayString = "${bank.ledger.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!isSnapshotMode()) {
+            return;
+        }
+        List<String> numbers = this.postingRepository.findAccountsBehindCheckpoint();
+        for (String number : numbers) {
+            this.accountLockManager.withAccountLocks(number, number, () ->
+                    this.transactionTemplate.execute(status -> this.postingRepository.checkpoint(number)));
+        }
+        if (!numbers.isEmpty()) {
+            log.info("Checkpointed the ledger of {} accounts", numbers.size());
+        }
+    }
+
+    /**
+     * Recomputes every balance from the full ledger, with all transfers paused. The slots of
+     * hot accounts are emptied, since their credits are part of the ledger too.
+     */
+    public int rebuildBalances() {
+        int accounts = this.accountLockManager.withAllLocks(() ->
+                this.transactionTemplate.execute(status -> {
+                    this.accountSlotRepository.clearAll();
+                    return this.postingRepository.rebuildBalances();
+                }));
+        log.info("Rebuilt the balances of {} accounts from the ledger", accounts);
+        return accounts;
+    }
+
+    private List<Posting> postingsOf(Transaction transaction) {
+        return List.of(
+                Posting.builder()
+                        .accountId(transaction.getFromAccount().getId())
+                        .transactionId(transaction.getId())
+                        .amount(transaction.getAmount().negate())
+                        .build(),
+                Posting.builder()
+                        .accountId(transaction.getToAccount().getId())
+                        .transactionId(transaction.getId())
+                        .amount(transaction.getAmount())
+                        .build());
+    }
+}
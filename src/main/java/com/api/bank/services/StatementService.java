@@ -0,0 +1,88 @@
+package com.api.bank.services;
+
+import com.api.bank.dtos.StatementDTO;
+import com.api.bank.dtos.StatementEntryDTO;
+import com.api.bank.dtos.StatementQueryDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.repositories.PostingRepository;
+import com.api.bank.repositories.StatementLine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account statements computed from the ledger. Every change to a balance is a posting,
+ * so the database derives each entry's signed amount and running balance with a window
+ * function, one page at a time, and the history is never replayed in memory. Balances
+ * are anchored on the account's latest snapshot, so a page only reads the postings
+ * between that snapshot and itself.
+ */
+@Slf4j
+@Service
+public class StatementService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Value("${bank.statement.page.default-size:100}")
+    private int defaultPageSize;
+
+    public StatementDTO getStatement(String id, StatementQueryDTO query) {
+        log.info("Fetching statement for account ID: {}", id);
+        Account account = this.accountService.getAccount(id);
+
+        int size = query.limit() != null ? query.limit() : this.defaultPageSize;
+        long afterId = query.cursor() != null ? decodeCursor(query.cursor()) : 0L;
+        // One extra row tells whether another page follows.
+        List<StatementLine> lines = this.postingRepository.findStatementPage(account.getId(),
+                query.from() != null ? query.from() : BEGINNING,
+                query.to() != null ? query.to() : END,
+                afterId, size + 1, this.ledgerService.isSnapshotMode());
+        Money opening = Money.ofMinor(lines.getFirst().getOpening());
+        List<StatementLine> postings = lines.getFirst().getId() == null ? List.of() : lines;
+
+        boolean more = postings.size() > size;
+        List<StatementEntryDTO> entries = (more ? postings.subList(0, size) : postings).stream()
+                .map(line -> new StatementEntryDTO(line.getId(),
+                        line.getTransactionId() != null ? UUID.fromString(line.getTransactionId()) : null, line.getCounterparty(),
+                        line.getCreatedAt(), Money.ofMinor(line.getAmount()), Money.ofMinor(line.getBalance())))
+                .toList();
+        log.debug("Found {} statement entries for account {}", entries.size(), account.getNumber());
+
+        // With no entries the period opens and closes at the balance as of its start.
+        Money closing = entries.isEmpty() ? opening : entries.getLast().balance();
+        return new StatementDTO(account.getId(), account.getNumber(), opening, closing, entries,
+                more ? encodeCursor(entries.getLast().postingId()) : null);
+    }
+
+    private String encodeCursor(long postingId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(postingId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.warn("Invalid statement cursor: {}", cursor);
+            throw new BankException("Invalid pagination cursor.");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.api.bank.services;
+
+import com.api.bank.dtos.TransactionExportRow;
+import com.api.bank.entities.Account;
+import com.api.bank.enums.ExportFormat;
+import com.api.bank.repositories.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Full transaction history exports for auditors, as NDJSON or CSV.
+ * <p>
+ * Rows come from a forward-only cursor over a constructor projection, so the database
+ * sends them in fetch-size chunks and none of them becomes a managed entity. Each row
+ * is written to the response as soon as it is read, so memory use does not depend on
+ * the number of rows. Access checks run when the export is prepared, on the request
+ * thread. The body is written later on an MVC async thread.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,dateTransfer,fromAccount,toAccount,amount,status,failureReason";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    void init() {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportTransactions(ExportFormat format) {
+        log.info("Exporting all transactions as {}", format);
+        return out -> write(format, null, out);
+    }
+
+    public StreamingResponseBody exportTransactionsByAccount(String id, ExportFormat format) {
+        log.info("Exporting transactions of account ID {} as {}", id, format);
+        Account account = this.accountService.getAccount(id);
+        return out -> write(format, account.getId(), out);
+    }
+
+    private void write(ExportFormat format, UUID accountId, OutputStream out) {
+        long rows = this.readOnlyTemplate.execute(status -> {
+            try (Stream<TransactionExportRow> stream = accountId == null
+                    ? this.transactionRepository.streamExportRows()
+                    : this.transactionRepository.streamExportRowsByAccount(accountId)) {
+                return switch (format) {
+                    case NDJSON -> writeNdjson(stream.iterator(), out);
+                    case CSV -> writeCsv(stream.iterator(), out);
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} transactions as {}", rows, format);
+    }
+
+    private long writeNdjson(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = this.objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                this.objectMapper.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(row.id().toString());
+            writer.write(',');
+            writer.write(row.dateTransfer().toString());
+            writer.write(',');
+            writer.write(csvField(row.fromAccount()));
+            writer.write(',');
+            writer.write(csvField(row.toAccount()));
+            writer.write(',');
+            writer.write(row.amount().toString());
+            writer.write(',');
+            writer.write(row.status() == null ? "" : row.status().name());
+            writer.write(',');
+            writer.write(csvField(row.failureReason()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
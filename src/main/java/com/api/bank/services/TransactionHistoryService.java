@@ -0,0 +1,106 @@
+package com.api.bank.services;
+
+import com.api.bank.dtos.TransactionFilterDTO;
+import com.api.bank.dtos.TransactionPage;
+import com.api.bank.dtos.TransactionResponseDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.repositories.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static com.api.bank.repositories.TransactionSpecifications.*;
+
+/**
+ * Read side of the transaction history, paged with keyset pagination on
+ * {@code (dateTransfer, id)}, newest first. A page is fetched with one indexed range
+ * scan no matter how deep into the history it is, and rows inserted meanwhile never
+ * shift or repeat items across pages the way offsets would.
+ */
+@Slf4j
+@Service
+public class TransactionHistoryService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Value("${bank.transaction.page.default-size:50}")
+    private int defaultPageSize;
+
+    public TransactionPage getTransactions(TransactionFilterDTO filter) {
+        log.info("Fetching a page of all transactions");
+        return page(null, filter);
+    }
+
+    public TransactionPage getTransactionsByAccount(String id, TransactionFilterDTO filter) {
+        log.info("Fetching a page of transactions for account ID: {}", id);
+        Account account = this.accountService.getAccount(id);
+        log.debug("Account found: {} - User: {}", account.getNumber(), account.getUser().getUsername());
+
+        return page(account, filter);
+    }
+
+    private TransactionPage page(Account account, TransactionFilterDTO filter) {
+        List<Specification<Transaction>> conditions = new ArrayList<>();
+        if (filter.from() != null) {
+            conditions.add(dateFrom(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add(dateBefore(filter.to()));
+        }
+        if (filter.minAmount() != null) {
+            conditions.add(amountAtLeast(Money.of(filter.minAmount())));
+        }
+        if (filter.maxAmount() != null) {
+            conditions.add(amountAtMost(Money.of(filter.maxAmount())));
+        }
+        if (filter.cursor() != null) {
+            conditions.add(decodeCursor(filter.cursor()));
+        }
+
+        int size = filter.limit() != null ? filter.limit() : this.defaultPageSize;
+        // One extra row tells whether another page follows without a count query.
+        Specification<Transaction> specification = Specification.allOf(conditions);
+        List<TransactionResponseDTO> rows = account == null
+                ? this.transactionRepository.findResponses(specification, size + 1)
+                : this.transactionRepository.findResponsesByAccount(account, specification, size + 1);
+
+        if (rows.size() <= size) {
+            log.debug("Found {} transactions on the last page", rows.size());
+            return new TransactionPage(rows, null);
+        }
+        List<TransactionResponseDTO> items = rows.subList(0, size);
+        log.debug("Found {} transactions, more follow", items.size());
+        return new TransactionPage(items, encodeCursor(items.getLast()));
+    }
+
+    private String encodeCursor(TransactionResponseDTO last) {
+        String position = last.dateTransfer() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Transaction> decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return after(LocalDateTime.parse(position[0]), UUID.fromString(position[1]));
+        } catch (RuntimeException e) {
+            log.warn("Invalid pagination cursor: {}", cursor);
+            throw new BankException("Invalid pagination cursor.");
+        }
+    }
+}
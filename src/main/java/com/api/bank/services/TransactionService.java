@@ -1,27 +1,51 @@
 package com.api.bank.services;
 
+import com.api.bank.concurrency.AccountLockManager;
+import com.api.bank.dtos.TransactionBatchItemDTO;
+import com.api.bank.dtos.TransactionBatchPostDTO;
+import com.api.bank.dtos.TransactionBatchResponseDTO;
 import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.engine.TransferEngine;
+import com.api.bank.engine.TransferResult;
 import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
 import com.api.bank.entities.Transaction;
-import com.api.bank.entities.user.User;
 import com.api.bank.enums.TransactionStatus;
-import com.api.bank.exceptions.transaction.CredentialsInvalidException;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.account.AccountNotFoundException;
 import com.api.bank.exceptions.transaction.InsufficientBalanceException;
-import com.api.bank.exceptions.transaction.SameAccountException;
-import com.api.bank.exceptions.transaction.UnauthorizedTransactionException;
-import com.api.bank.kafka.event.TransactionCreatedEvent;
+import com.api.bank.exceptions.transaction.TransferEngineBusyException;
+import com.api.bank.exceptions.transaction.TransferOutcomeUnknownException;
+import com.api.bank.kafka.event.TransactionBatchCreatedEvent;
 import com.api.bank.kafka.event.TransactionEvent;
 import com.api.bank.kafka.producer.TransactionProducer;
 import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.security.UserPrincipal;
+import com.api.bank.services.rules.RuleCost;
+import com.api.bank.services.rules.TransferContext;
+import com.api.bank.services.rules.TransferRuleChain;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -34,7 +58,7 @@ public class TransactionService {
     private AccountService accountService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private TransferRuleChain transferRuleChain;
 
     @Autowired
     private TransactionProducer transactionProducer;
@@ -42,93 +66,314 @@ public class TransactionService {
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
+    @Autowired
+    private AccountLockManager accountLockManager;
 
-    public List<Transaction> getTransactions() {
-        log.info("Fetching all transactions");
-        List<Transaction> transactions = this.transactionRepository.findAll();
-        log.debug("Found {} transactions", transactions.size());
-        return transactions;
-    }
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransferWriter transferWriter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
 
-    public List<Transaction> getTransactionsByAccount(String id) {
-        log.info("Fetching transactions for account ID: {}", id);
-        Account account = this.accountService.getAccount(id);
-        log.debug("Account found: {} - User: {}", account.getNumber(), account.getUser().getUsername());
+    @Autowired
+    private LedgerService ledgerService;
 
-        List<Transaction> transactions = this.transactionRepository.findByFromAccountOrToAccount(account, account);
-        log.debug("Found {} transactions related to account {}", transactions.size(), account.getNumber());
-        return transactions;
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired(required = false)
+    private TransferEngine transferEngine;
+
+    @Value("${bank.transaction.engine.await-timeout-ms:10000}")
+    private long engineAwaitTimeoutMs;
+
+    /**
+     * Same as {@link #createTransaction(TransactionPostDTO)}, deduplicated by the client's
+     * {@code Idempotency-Key} when one is given.
+     */
+    public Transaction createTransaction(TransactionPostDTO transactionPostDTO, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransaction(transactionPostDTO);
+        }
+        return this.idempotencyService.execute(idempotencyKey, transactionPostDTO, scopedKey -> {
+            log.info("Starting transaction from {} to {}", transactionPostDTO.getFromAccount(), transactionPostDTO.getToAccount());
+
+            Transaction transaction = authorize(transactionPostDTO, RuleCost.CRYPTO);
+            transaction.setIdempotencyKey(scopedKey);
+            return execute(transaction);
+        });
     }
 
-    @Transactional
     public Transaction createTransaction(TransactionPostDTO transactionPostDTO) {
         log.info("Starting transaction from {} to {}", transactionPostDTO.getFromAccount(), transactionPostDTO.getToAccount());
 
-        Account fromAccount = this.accountService.getAccountByNumber(transactionPostDTO.getFromAccount());
-        Account toAccount = this.accountService.getAccountByNumber(transactionPostDTO.getToAccount());
+        return execute(authorize(transactionPostDTO, RuleCost.CRYPTO));
+    }
+
+    /**
+     * Loads the accounts and runs the in-memory rules only, for callers that finish the
+     * transfer later with {@link #completeTransaction}.
+     */
+    public Transaction precheckTransaction(TransactionPostDTO transactionPostDTO) {
+        return authorize(transactionPostDTO, RuleCost.MEMORY);
+    }
+
+    /**
+     * Runs every rule against fresh account data and writes the transfer into the row
+     * of the already stored {@code pending} transaction.
+     */
+    public Transaction completeTransaction(Transaction pending, TransactionPostDTO transactionPostDTO) {
+        Transaction transaction = authorize(transactionPostDTO, RuleCost.CRYPTO);
+        transaction.setId(pending.getId());
+        transaction.setDateTransfer(pending.getDateTransfer());
+        return execute(transaction);
+    }
+
+    public void failTransaction(UUID id, String reason) {
+        this.transactionTemplate.executeWithoutResult(status -> this.transactionRepository.findById(id)
+                .ifPresent(transaction -> {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setFailureReason(reason);
+                }));
+    }
 
-        User loggedUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        log.debug("Logged in user: {} (ID: {})", loggedUser.getUsername(), loggedUser.getId());
+    private Transaction execute(Transaction transaction) {
+        if (this.transferEngine != null) {
+            return awaitEngine(this.transferEngine.submit(transaction));
+        }
+
+        // The locks cover the whole database transaction, so transfers on the same account
+        // queue in memory instead of piling up on its row lock, and are released at commit,
+        // before the event is published. A credit to a hot account only touches one of its
+        // slots, so that account is left unlocked.
+        Account toAccount = transaction.getToAccount();
+        return this.accountLockManager.withAccountLocks(
+                transaction.getFromAccount().getNumber(),
+                this.hotAccountService.isHot(toAccount) ? transaction.getFromAccount().getNumber() : toAccount.getNumber(),
+                this.transactionTemplate,
+                status -> this.transferWriter.write(transaction)
+        );
+    }
 
-        boolean isOwner = fromAccount.getUser().getId().equals(loggedUser.getId());
-        boolean isAdmin = loggedUser.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    /**
+     * Applies a list of transfers in one database transaction. Ownership and credentials
+     * are verified once per source user, balances are updated through Hibernate's JDBC
+     * batching and all events leave in one producer batch. Failed items are reported
+     * individually; in atomic mode any failure rolls the whole batch back.
+     */
+    public TransactionBatchResponseDTO createTransactions(TransactionBatchPostDTO batchPostDTO) {
+        List<TransactionPostDTO> items = batchPostDTO.getTransactions();
+        log.info("Starting batch of {} transactions (atomic = {})", items.size(), batchPostDTO.isAtomic());
 
-        if (!isOwner && !isAdmin) {
-            log.warn("User {} tried to perform transaction without permission", loggedUser.getUsername());
-            throw new UnauthorizedTransactionException();
+        if (this.transferEngine != null && batchPostDTO.isAtomic()) {
+            throw new BankException("Atomic batches are not supported by the configured transfer engine.");
         }
 
-        if (!isAdmin) {
-            boolean passwordMatches = passwordEncoder.matches(
-                    transactionPostDTO.getPasswordUser(),
-                    fromAccount.getUser().getPassword()
-            );
+        TransactionBatchItemDTO[] results = new TransactionBatchItemDTO[items.size()];
+        Map<String, Account> accounts = this.accountService.getAccountsByNumbers(items.stream()
+                .flatMap(item -> Stream.of(item.getFromAccount(), item.getToAccount()))
+                .collect(Collectors.toSet()));
+        UserPrincipal loggedUser = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Map<TransferContext.CredentialKey, Boolean> verifiedCredentials = new HashMap<>();
 
-            if (!passwordMatches) {
-                log.warn("Invalid password for user {}", loggedUser.getUsername());
-                throw new CredentialsInvalidException();
+        List<Integer> authorized = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            TransactionPostDTO item = items.get(i);
+            try {
+                Money amount = Money.of(item.getAmount());
+                Account fromAccount = Optional.ofNullable(accounts.get(item.getFromAccount())).orElseThrow(AccountNotFoundException::new);
+                Account toAccount = Optional.ofNullable(accounts.get(item.getToAccount())).orElseThrow(AccountNotFoundException::new);
+                // Balances are checked against running totals once the batch is applied.
+                this.transferRuleChain.check(new TransferContext(fromAccount, toAccount, amount,
+                        item.getPasswordUser(), loggedUser, false, verifiedCredentials));
+                authorized.add(i);
+            } catch (BankException e) {
+                results[i] = failedItem(i, e.getMessage());
             }
         }
 
-        if (fromAccount.equals(toAccount)) {
-            log.warn("Attempt to transfer to the same account: {}", fromAccount.getNumber());
-            throw new SameAccountException();
+        if (batchPostDTO.isAtomic() && authorized.size() < items.size()) {
+            return batchResponse(abortBatch(results));
         }
 
-        if (fromAccount.getBalance().compareTo(transactionPostDTO.getAmount()) < 0) {
-            log.warn("Insufficient balance in account {}. Current balance: {}, requested amount: {}",
-                    fromAccount.getNumber(),
-                    fromAccount.getBalance(),
-                    transactionPostDTO.getAmount());
-            throw new InsufficientBalanceException();
+        if (this.transferEngine != null) {
+            return batchResponse(submitBatchToEngine(items, authorized, accounts, results));
         }
 
-        this.accountService.deposit(toAccount, transactionPostDTO.getAmount());
-        this.accountService.withdraw(fromAccount, transactionPostDTO.getAmount());
+        Set<String> lockedNumbers = authorized.stream()
+                .flatMap(i -> Stream.of(items.get(i).getFromAccount(), items.get(i).getToAccount()))
+                .collect(Collectors.toSet());
+        this.accountLockManager.withAccountLocks(lockedNumbers, this.transactionTemplate, status -> {
+            applyBatch(items, authorized, lockedNumbers, results);
+            if (batchPostDTO.isAtomic() && Arrays.stream(results).anyMatch(r -> r.status() == TransactionStatus.FAILED)) {
+                status.setRollbackOnly();
+                abortBatch(results);
+            }
+            return null;
+        });
+        return batchResponse(results);
+    }
+
+    /**
+     * Runs the rules up to {@code maxCost} against the caller's security context and
+     * returns the not yet persisted transaction describing the transfer.
+     */
+    private Transaction authorize(TransactionPostDTO transactionPostDTO, RuleCost maxCost) {
+        Account fromAccount = this.accountService.getAccountByNumber(transactionPostDTO.getFromAccount());
+        Account toAccount = this.accountService.getAccountReference(transactionPostDTO.getToAccount());
+
+        UserPrincipal loggedUser = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        log.debug("Logged in user: {} (ID: {})", loggedUser.email(), loggedUser.id());
 
-        Transaction transaction = Transaction.builder()
-                .status(TransactionStatus.COMPLETED)
+        // The loaded balance is only trusted when neither an engine, the ledger nor hot slots hold newer state.
+        Money amount = Money.of(transactionPostDTO.getAmount());
+        boolean checkBalance = this.transferEngine == null && !this.ledgerService.isSnapshotMode()
+                && !this.hotAccountService.isHot(fromAccount);
+        this.transferRuleChain.check(new TransferContext(fromAccount, toAccount, amount,
+                transactionPostDTO.getPasswordUser(), loggedUser, checkBalance, new HashMap<>()), maxCost);
+
+        return Transaction.builder()
                 .fromAccount(fromAccount)
                 .toAccount(toAccount)
-                .amount(transactionPostDTO.getAmount())
+                .amount(amount)
                 .build();
+    }
 
-        Transaction savedTransaction = this.transactionRepository.save(transaction);
-        log.info("Transaction saved successfully: ID = {}, amount = {}", savedTransaction.getId(), savedTransaction.getAmount());
+    /**
+     * Reloads the accounts inside the batch transaction and applies the items in order
+     * against running balances. In inline balance mode the managed entities are flushed
+     * as batched UPDATEs; either way the postings go to the ledger as batched INSERTs.
+     */
+    private void applyBatch(List<TransactionPostDTO> items, List<Integer> authorized,
+                            Set<String> numbers, TransactionBatchItemDTO[] results) {
+        Map<String, Account> accounts = this.accountService.getAccountsByNumbers(numbers);
+        List<Integer> applied = new ArrayList<>(authorized.size());
+        List<Transaction> transactions = new ArrayList<>(authorized.size());
+        Map<String, Money> balances = new HashMap<>();
 
-        TransactionEvent event = new TransactionEvent(
-                fromAccount.getNumber(),
-                toAccount.getNumber(),
-                transactionPostDTO.getAmount(),
-                TransactionStatus.COMPLETED.name()
-        );
+        for (int i : authorized) {
+            TransactionPostDTO item = items.get(i);
+            Money amount = Money.of(item.getAmount());
+            Account fromAccount = accounts.get(item.getFromAccount());
+            Account toAccount = accounts.get(item.getToAccount());
+            if (fromAccount == null || toAccount == null) {
+                results[i] = failedItem(i, new AccountNotFoundException().getMessage());
+                continue;
+            }
+            Money fromBalance = balances.computeIfAbsent(fromAccount.getNumber(), n -> openingBalance(fromAccount));
+            if (fromBalance.isLessThan(amount)) {
+                results[i] = failedItem(i, new InsufficientBalanceException().getMessage());
+                continue;
+            }
 
-        eventPublisher.publishEvent(new TransactionCreatedEvent(event));
-        log.info("TransactionCreatedEvent published for transaction ID = {}", savedTransaction.getId());
+            balances.put(fromAccount.getNumber(), fromBalance.minus(amount));
+            Money toBalance = balances.computeIfAbsent(toAccount.getNumber(), n -> openingBalance(toAccount));
+            balances.put(toAccount.getNumber(), toBalance.plus(amount));
+            transactions.add(Transaction.builder()
+                    .status(TransactionStatus.COMPLETED)
+                    .fromAccount(fromAccount)
+                    .toAccount(toAccount)
+                    .amount(amount)
+                    .build());
+            applied.add(i);
+        }
 
-        return savedTransaction;
+        if (!this.ledgerService.isSnapshotMode()) {
+            balances.forEach((number, balance) -> accounts.get(number).setBalance(balance));
+        }
+        this.transactionRepository.saveAll(transactions);
+        this.ledgerService.recordAll(transactions);
+        for (int j = 0; j < applied.size(); j++) {
+            int i = applied.get(j);
+            results[i] = new TransactionBatchItemDTO(i, TransactionStatus.COMPLETED, transactions.get(j).getId(), null);
+        }
+
+        eventPublisher.publishEvent(new TransactionBatchCreatedEvent(transactions.stream().map(TransactionEvent::from).toList()));
+        log.info("Batch applied: {} transactions saved, {} failed", transactions.size(), items.size() - transactions.size());
     }
 
+    /**
+     * Running balances start from the current balance. The slots of a hot account are
+     * drained into it, since the batch writes the account row as a whole.
+     */
+    private Money openingBalance(Account account) {
+        return this.ledgerService.currentBalance(account).plus(this.hotAccountService.drain(account));
+    }
 
+    private TransactionBatchItemDTO[] submitBatchToEngine(List<TransactionPostDTO> items, List<Integer> authorized,
+                                                          Map<String, Account> accounts, TransactionBatchItemDTO[] results) {
+        Map<Integer, TransferResult> submitted = new LinkedHashMap<>();
+        for (int i : authorized) {
+            TransactionPostDTO item = items.get(i);
+            try {
+                submitted.put(i, this.transferEngine.submit(Transaction.builder()
+                        .fromAccount(accounts.get(item.getFromAccount()))
+                        .toAccount(accounts.get(item.getToAccount()))
+                        .amount(Money.of(item.getAmount()))
+                        .build()));
+            } catch (BankException e) {
+                results[i] = failedItem(i, e.getMessage());
+            }
+        }
+        submitted.forEach((i, result) -> {
+            try {
+                results[i] = new TransactionBatchItemDTO(i, TransactionStatus.COMPLETED, awaitEngine(result).getId(), null);
+            } catch (BankException e) {
+                results[i] = failedItem(i, e.getMessage());
+            }
+        });
+        return results;
+    }
+
+    private TransactionBatchItemDTO[] abortBatch(TransactionBatchItemDTO[] results) {
+        log.warn("Atomic batch aborted");
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null || results[i].status() == TransactionStatus.COMPLETED) {
+                results[i] = failedItem(i, "Batch aborted because another transaction failed.");
+            }
+        }
+        return results;
+    }
+
+    private TransactionBatchItemDTO failedItem(int index, String message) {
+        return new TransactionBatchItemDTO(index, TransactionStatus.FAILED, null, message);
+    }
+
+    private TransactionBatchResponseDTO batchResponse(TransactionBatchItemDTO[] results) {
+        int completed = (int) Arrays.stream(results).filter(r -> r.status() == TransactionStatus.COMPLETED).count();
+        return new TransactionBatchResponseDTO(completed, results.length - completed, List.of(results));
+    }
+
+    /**
+     * Waits for the engine's outcome. A transfer still queued when the wait times out is
+     * withdrawn, so the busy error the client may retry is only ever reported for one that
+     * cannot commit anymore. A transfer a worker already claimed always completes, so the
+     * wait goes on for its outcome rather than answer before knowing it. If that wait is
+     * interrupted, the outcome is reported as unknown.
+     */
+    private Transaction awaitEngine(TransferResult result) {
+        try {
+            try {
+                return result.get(this.engineAwaitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (result.withdraw()) {
+                    log.warn("Transfer engine did not start the transfer within {} ms, withdrawn", this.engineAwaitTimeoutMs);
+                    throw new TransferEngineBusyException();
+                }
+                log.warn("Transfer engine is still applying a transfer after {} ms, waiting for its outcome", this.engineAwaitTimeoutMs);
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new TransferOutcomeUnknownException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferOutcomeUnknownException();
+        }
+    }
 }
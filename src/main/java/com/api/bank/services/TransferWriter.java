@@ -0,0 +1,84 @@
+package com.api.bank.services;
+
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.exceptions.BankException;
+import com.api.bank.exceptions.account.AccountNotFoundException;
+import com.api.bank.kafka.event.TransactionCreatedEvent;
+import com.api.bank.kafka.event.TransactionEvent;
+import com.api.bank.repositories.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a single authorized transfer: balances, transaction row and event.
+ * Must be called inside a database transaction. A transfer rejected with a
+ * {@link BankException} leaves no writes behind, so callers sharing one
+ * transaction between several transfers can carry on with the others.
+ */
+@Slf4j
+@Component
+public class TransferWriter {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Transaction write(Transaction transaction) {
+        if (this.ledgerService.isSnapshotMode()) {
+            return writePostings(transaction);
+        }
+
+        this.accountService.withdraw(transaction.getFromAccount(), transaction.getAmount());
+        try {
+            this.accountService.deposit(transaction.getToAccount(), transaction.getAmount());
+        } catch (AccountNotFoundException e) {
+            log.warn("Destination account {} vanished, returning the debit", transaction.getToAccount().getNumber());
+            this.accountService.deposit(transaction.getFromAccount(), transaction.getAmount());
+            throw e;
+        }
+
+        return complete(transaction);
+    }
+
+    /**
+     * Snapshot balance mode: the transfer is only appended to the ledger. The caller's
+     * account locks keep the balance check and the append atomic. The destination is
+     * only a reference (see {@link AccountService#getAccountReference}), so only the
+     * source balance is presented.
+     */
+    private Transaction writePostings(Transaction transaction) {
+        Money fromBalance = this.ledgerService.ensureCovers(transaction.getFromAccount(), transaction.getAmount());
+
+        Transaction savedTransaction = complete(transaction);
+        this.ledgerService.present(savedTransaction.getFromAccount(), fromBalance.minus(transaction.getAmount()));
+        return savedTransaction;
+    }
+
+    private Transaction complete(Transaction transaction) {
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        Transaction savedTransaction = this.transactionRepository.save(transaction);
+        this.ledgerService.record(savedTransaction);
+        this.idempotencyService.answer(savedTransaction);
+        log.info("Transaction saved successfully: ID = {}, amount = {}", savedTransaction.getId(), savedTransaction.getAmount());
+
+        eventPublisher.publishEvent(new TransactionCreatedEvent(TransactionEvent.from(savedTransaction)));
+        log.info("TransactionCreatedEvent published for transaction ID = {}", savedTransaction.getId());
+
+        return savedTransaction;
+    }
+}
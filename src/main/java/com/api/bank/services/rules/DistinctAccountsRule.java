@@ -0,0 +1,25 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.exceptions.transaction.SameAccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@Order(2)
+public class DistinctAccountsRule implements TransferRule {
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.MEMORY;
+    }
+
+    @Override
+    public void check(TransferContext context) {
+        if (context.fromAccount().getId().equals(context.toAccount().getId())) {
+            log.warn("Attempt to transfer to the same account: {}", context.fromAccount().getNumber());
+            throw new SameAccountException();
+        }
+    }
+}
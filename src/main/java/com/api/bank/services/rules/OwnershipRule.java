@@ -0,0 +1,26 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.exceptions.transaction.UnauthorizedTransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@Order(1)
+public class OwnershipRule implements TransferRule {
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.MEMORY;
+    }
+
+    @Override
+    public void check(TransferContext context) {
+        boolean isOwner = context.fromAccount().getUser().getId().equals(context.loggedUser().id());
+        if (!isOwner && !context.isAdmin()) {
+            log.warn("User {} tried to perform transaction without permission", context.loggedUser().email());
+            throw new UnauthorizedTransactionException();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.bank.services.rules;
+
+/**
+ * Rough price of a {@link TransferRule}. The chain runs cheaper classes first.
+ */
+public enum RuleCost {
+    MEMORY,
+    CRYPTO
+}
@@ -0,0 +1,34 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Early rejection against the balance loaded with the request, so an overdraft never
+ * reaches password hashing. The guarded debit still decides under concurrency.
+ */
+@Slf4j
+@Component
+@Order(3)
+public class SufficientBalanceRule implements TransferRule {
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.MEMORY;
+    }
+
+    @Override
+    public boolean appliesTo(TransferContext context) {
+        return context.checkBalance();
+    }
+
+    @Override
+    public void check(TransferContext context) {
+        if (context.fromAccount().getBalance().isLessThan(context.amount())) {
+            log.warn("Insufficient balance in account {} for amount {}", context.fromAccount().getNumber(), context.amount());
+            throw new InsufficientBalanceException();
+        }
+    }
+}
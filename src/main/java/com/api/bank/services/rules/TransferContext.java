@@ -0,0 +1,31 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.security.UserPrincipal;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything the rules need to judge one transfer.
+ *
+ * @param checkBalance        whether the loaded balance is reliable enough for an early check;
+ *                            the guarded debit remains the authoritative one
+ * @param verifiedCredentials password results already computed for the same request
+ */
+public record TransferContext(Account fromAccount,
+                              Account toAccount,
+                              Money amount,
+                              String password,
+                              UserPrincipal loggedUser,
+                              boolean checkBalance,
+                              Map<CredentialKey, Boolean> verifiedCredentials) {
+
+    public boolean isAdmin() {
+        return loggedUser.isAdmin();
+    }
+
+    public record CredentialKey(UUID userId, String password) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.exceptions.transaction.CredentialsInvalidException;
+import com.api.bank.security.TransferCredentialVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class TransferPasswordRule implements TransferRule {
+
+    @Autowired
+    private TransferCredentialVerifier transferCredentialVerifier;
+
+    @Override
+    public RuleCost cost() {
+        return RuleCost.CRYPTO;
+    }
+
+    @Override
+    public boolean appliesTo(TransferContext context) {
+        return !context.isAdmin();
+    }
+
+    @Override
+    public void check(TransferContext context) {
+        User owner = context.fromAccount().getUser();
+        boolean passwordMatches = context.verifiedCredentials().computeIfAbsent(
+                new TransferContext.CredentialKey(owner.getId(), context.password()),
+                key -> transferCredentialVerifier.matches(owner, context.password())
+        );
+
+        if (!passwordMatches) {
+            log.warn("Invalid password for user {}", context.loggedUser().email());
+            throw new CredentialsInvalidException();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.api.bank.services.rules;
+
+/**
+ * A single check a transfer must pass before it is written. Rules signal a rejection
+ * by throwing the matching {@link com.api.bank.exceptions.BankException}.
+ */
+public interface TransferRule {
+
+    RuleCost cost();
+
+    void check(TransferContext context);
+
+    default boolean appliesTo(TransferContext context) {
+        return true;
+    }
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
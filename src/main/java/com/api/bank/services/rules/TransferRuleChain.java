@@ -0,0 +1,70 @@
+package com.api.bank.services.rules;
+
+import com.api.bank.exceptions.BankException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every {@link TransferRule} bean, cheapest {@link RuleCost} first and by
+ * {@code @Order} within a cost class, stopping at the first rejection. Each rule gets
+ * a {@code bank.transfer.rule.duration} timer and a {@code bank.transfer.rule.rejections}
+ * counter tagged with its name.
+ */
+@Slf4j
+@Component
+public class TransferRuleChain {
+
+    private final List<InstrumentedRule> rules;
+
+    public TransferRuleChain(List<TransferRule> rules, MeterRegistry meterRegistry) {
+        // Spring hands the beans over in @Order order; the sort is stable, so it only groups them by cost.
+        this.rules = rules.stream()
+                .sorted(Comparator.comparing(TransferRule::cost))
+                .map(rule -> new InstrumentedRule(rule,
+                        Timer.builder("bank.transfer.rule.duration")
+                                .description("Time spent evaluating a transfer rule")
+                                .tag("rule", rule.name())
+                                .register(meterRegistry),
+                        Counter.builder("bank.transfer.rule.rejections")
+                                .description("Transfers rejected by a transfer rule")
+                                .tag("rule", rule.name())
+                                .register(meterRegistry)))
+                .toList();
+        log.info("Transfer rule chain: {}", this.rules.stream().map(r -> r.rule().name()).toList());
+    }
+
+    public void check(TransferContext context) {
+        check(context, RuleCost.CRYPTO);
+    }
+
+    /**
+     * Runs only the rules whose cost class is at most {@code maxCost}.
+     */
+    public void check(TransferContext context, RuleCost maxCost) {
+        for (InstrumentedRule instrumented : rules) {
+            TransferRule rule = instrumented.rule();
+            if (rule.cost().compareTo(maxCost) > 0 || !rule.appliesTo(context)) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                rule.check(context);
+            } catch (BankException e) {
+                instrumented.rejections().increment();
+                throw e;
+            } finally {
+                instrumented.duration().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private record InstrumentedRule(TransferRule rule, Timer duration, Counter rejections) {
+    }
+}
@@ -2,16 +2,20 @@ package com.api.bank;
 
 import com.api.bank.dtos.*;
 import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
 import com.api.bank.entities.user.User;
 import com.api.bank.enums.UserRole;
 import com.api.bank.repositories.AccountRepository;
 import com.api.bank.repositories.TransactionRepository;
 import com.api.bank.repositories.UserRepository;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -19,6 +23,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
@@ -45,6 +50,9 @@ class AccountControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${api.security.token.secret}")
+    private String tokenSecret;
+
     private Account account;
 
     @BeforeEach
@@ -61,7 +69,7 @@ class AccountControllerTest {
 
         account = Account.builder()
                 .number("123456")
-                .balance(BigDecimal.valueOf(1000.0))
+                .balance(Money.of(BigDecimal.valueOf(1000.0)))
                 .user(user)
                 .build();
         accountRepository.save(account);
@@ -112,7 +120,7 @@ class AccountControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].number", is(account.getNumber())))
-                .andExpect(jsonPath("$[0].balance", is(account.getBalance().doubleValue())));
+                .andExpect(jsonPath("$[0].balance", is(account.getBalance().toBigDecimal().doubleValue())));
     }
 
     @Test
@@ -133,6 +141,21 @@ class AccountControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("GET /accounts/ should return 403 for a signed token without the user id and role claims")
+    void shouldDenyTokenWithoutClaims() throws Exception {
+        registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String token = JWT.create()
+                .withIssuer("bank-auth-api")
+                .withSubject("admin@example.com")
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.HMAC256(tokenSecret));
+
+        mockMvc.perform(get("/accounts/")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("GET /accounts/{id} should return account by id")
     void shouldAllowAdminGetAccountById() throws Exception {
@@ -142,7 +165,7 @@ class AccountControllerTest {
                         .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.number", is(account.getNumber())))
-                .andExpect(jsonPath("$.balance", is(account.getBalance().doubleValue())));
+                .andExpect(jsonPath("$.balance", is(account.getBalance().toBigDecimal().doubleValue())));
     }
 
     @Test
@@ -155,7 +178,7 @@ class AccountControllerTest {
                         .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.number", is(account.getNumber())))
-                .andExpect(jsonPath("$.balance", is(account.getBalance().doubleValue())));
+                .andExpect(jsonPath("$.balance", is(account.getBalance().toBigDecimal().doubleValue())));
     }
 
     @Test
@@ -206,6 +229,25 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.balance", is(dto.getBalance().doubleValue())));
     }
 
+    @Test
+    @DisplayName("Account responses should not expose the owner's credentials or internal columns")
+    void shouldReturnSlimAccount() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        AccountPostDTO dto = new AccountPostDTO("654321", BigDecimal.valueOf(5000.0));
+
+        mockMvc.perform(post("/accounts/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.user.id", notNullValue()))
+                .andExpect(jsonPath("$.user.password").doesNotExist())
+                .andExpect(jsonPath("$.user.authorities").doesNotExist())
+                .andExpect(jsonPath("$.ledgerCheckpoint").doesNotExist());
+    }
+
     @Test
     @DisplayName("POST /accounts/ should return error when account number is null")
     void shouldReturnErrorWhenAccountNumberIsNull() throws Exception {
@@ -374,7 +416,7 @@ class AccountControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.number", is(dto.getNumber())))
-                .andExpect(jsonPath("$.balance", is(account.getBalance().doubleValue())));
+                .andExpect(jsonPath("$.balance", is(account.getBalance().toBigDecimal().doubleValue())));
     }
 
     @Test
@@ -0,0 +1,231 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AccountUpdateDTO;
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.services.AccountDirectory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class AccountDirectoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        merchant = accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private void transfer(String token, String to, long amount, int expectedStatus) throws Exception {
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                                .fromAccount("123456")
+                                .toAccount(to)
+                                .passwordUser("adminpass")
+                                .amount(BigDecimal.valueOf(amount))
+                                .build())))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    private double directoryHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "accounts.by-number")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    @DisplayName("Repeated transfers should address the destination from the directory and still credit the real balance")
+    void shouldServeDestinationFromDirectory() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        double hitsBefore = directoryHits();
+
+        transfer(adminToken, "654321", 100, 201);
+        transfer(adminToken, "654321", 100, 201);
+        transfer(adminToken, "654321", 100, 201);
+
+        assertEquals(2, directoryHits() - hitsBefore);
+        assertEquals(Money.of(BigDecimal.valueOf(800)), accountRepository.findByNumber("654321").orElseThrow().getBalance());
+        assertEquals(Money.of(BigDecimal.valueOf(1700)), accountRepository.findByNumber("123456").orElseThrow().getBalance());
+    }
+
+    @Test
+    @DisplayName("Changing an account number should stop transfers to the old number")
+    void shouldInvalidateRenamedNumber() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transfer(adminToken, "654321", 100, 201);
+
+        mockMvc.perform(put("/accounts/{id}", merchant.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountUpdateDTO("777777", null))))
+                .andExpect(status().isOk());
+
+        transfer(adminToken, "654321", 100, 404);
+        transfer(adminToken, "777777", 100, 201);
+        assertEquals(Money.of(BigDecimal.valueOf(700)), accountRepository.findByNumber("777777").orElseThrow().getBalance());
+    }
+
+    @Test
+    @DisplayName("Deleting an account should stop transfers to its number")
+    void shouldInvalidateDeletedAccount() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transfer(adminToken, "654321", 100, 201);
+
+        transactionRepository.deleteAll();
+        mockMvc.perform(delete("/accounts/{id}", merchant.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().is2xxSuccessful());
+
+        transfer(adminToken, "654321", 100, 404);
+    }
+
+    @Test
+    @DisplayName("A lookup that read the account before an invalidation should not cache what it read")
+    void shouldNotCacheLoadRacingWithInvalidation() throws Exception {
+        AccountRepository repository = mock(AccountRepository.class);
+        AccountDirectory directory = new AccountDirectory(repository, Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        User owner = new User("userteste2@example.com", "password", UserRole.USER);
+        owner.setId(UUID.randomUUID());
+        Account stale = Account.builder().id(UUID.randomUUID()).number("654321").user(owner).hotSlots(0).build();
+        Account current = Account.builder().id(stale.getId()).number("654321").user(owner).hotSlots(4).build();
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByNumber("654321"))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.of(current));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<AccountDirectory.Entry>> racing = executor.submit(() -> directory.find("654321"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            directory.invalidate("654321");
+            release.countDown();
+
+            assertEquals(0, racing.get(5, TimeUnit.SECONDS).orElseThrow().hotSlots());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4, directory.find("654321").orElseThrow().hotSlots());
+        assertEquals(4, directory.find("654321").orElseThrow().hotSlots());
+        verify(repository, times(2)).findByNumber("654321");
+    }
+}
@@ -0,0 +1,170 @@
+package com.api.bank;
+
+import com.api.bank.entities.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The first page of one account's history on a large transactions table, answered by an
+ * {@code OR} over both foreign keys against the {@code UNION ALL} of an ordered, limited
+ * sent branch and received branch that {@code findResponsesByAccount} issues. The table
+ * carries the three indexes declared on {@code Transaction} and lives in an on-disk H2
+ * database; each invocation asks for a different account, so the page cache does not
+ * hold the answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AccountHistoryBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    private static final String COLUMNS = "select id, from_account_id, to_account_id, amount, date_transfer from transactions ";
+
+    private static final String OR_PAGE = COLUMNS
+            + "where from_account_id = ?1 or to_account_id = ?1 "
+            + "order by date_transfer desc, id desc fetch first ?2 rows only";
+
+    private static final String UNION_PAGE = "(" + COLUMNS
+            + "where from_account_id = ?1 order by date_transfer desc, id desc fetch first ?2 rows only) "
+            + "union all (" + COLUMNS
+            + "where to_account_id = ?1 order by date_transfer desc, id desc fetch first ?2 rows only)";
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"100000"})
+    public int accounts;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement orPage;
+    private PreparedStatement unionPage;
+    private UUID[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("account-history-");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("bench"), "sa", "");
+        accountIds = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = UUID.randomUUID();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table transactions (id uuid primary key, from_account_id uuid not null, "
+                    + "to_account_id uuid not null, amount bigint not null, date_transfer timestamp not null)");
+        }
+        load();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index idx_transactions_date on transactions (date_transfer, id)");
+            statement.execute("create index idx_transactions_from_date on transactions (from_account_id, date_transfer, id)");
+            statement.execute("create index idx_transactions_to_date on transactions (to_account_id, date_transfer, id)");
+            statement.execute("analyze");
+        }
+        orPage = connection.prepareStatement(OR_PAGE);
+        unionPage = connection.prepareStatement(UNION_PAGE);
+        printPlan(OR_PAGE);
+        printPlan(UNION_PAGE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        orPage.close();
+        unionPage.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void or(Blackhole blackhole) throws SQLException {
+        page(orPage, blackhole);
+    }
+
+    @Benchmark
+    public void unionAll(Blackhole blackhole) throws SQLException {
+        page(unionPage, blackhole);
+    }
+
+    private void page(PreparedStatement query, Blackhole blackhole) throws SQLException {
+        query.setObject(1, accountIds[ThreadLocalRandom.current().nextInt(accounts)]);
+        query.setInt(2, pageSize);
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject(1));
+            }
+        }
+    }
+
+    private void printPlan(String sql) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            explain.setObject(1, accountIds[0]);
+            explain.setInt(2, pageSize);
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                System.out.println(plan.getString(1));
+            }
+        }
+    }
+
+    private void load() throws SQLException {
+        connection.setAutoCommit(false);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.currentTimeMillis() - rows * 1000L;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into transactions (id, from_account_id, to_account_id, amount, date_transfer) values (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, UuidV7Generator.next());
+                insert.setObject(2, accountIds[random.nextInt(accounts)]);
+                insert.setObject(3, accountIds[random.nextInt(accounts)]);
+                insert.setLong(4, random.nextLong(1, 100_000));
+                insert.setTimestamp(5, new Timestamp(start + i * 1000L));
+                insert.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,105 @@
+package com.api.bank;
+
+import com.api.bank.concurrency.AccountLockManager;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountLockManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountLockManager lockManager = new AccountLockManager(256, 50, meterRegistry);
+
+    @Test
+    @DisplayName("Transfers locking the same pair in opposite directions should never deadlock")
+    void shouldNotDeadlockInOppositeDirections() {
+        int[] counter = new int[1];
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> forward = executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        lockManager.withAccountLocks("123456", "654321", () -> counter[0]++);
+                    }
+                });
+                Future<?> backward = executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        lockManager.withAccountLocks("654321", "123456", () -> counter[0]++);
+                    }
+                });
+                forward.get();
+                backward.get();
+            } finally {
+                executor.shutdown();
+            }
+        });
+        // The counter is only touched under the pair's locks, so no increment may be lost.
+        assertEquals(100_000, counter[0]);
+    }
+
+    @Test
+    @DisplayName("Transfers between unrelated accounts should not wait for each other")
+    void shouldRunUnrelatedAccountsInParallel() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = executor.submit(() -> lockManager.withAccountLocks("123456", "654321", () -> {
+                held.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            Future<Boolean> other = executor.submit(() -> lockManager.withAccountLocks("111111", "222222", () -> true));
+            assertTrue(other.get(2, TimeUnit.SECONDS));
+
+            release.countDown();
+            holder.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Time spent waiting for a held stripe should be recorded in bank.account.lock.wait")
+    void shouldRecordLockWait() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = executor.submit(() -> lockManager.withAccountLocks("123456", "654321", () -> {
+                held.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> lockManager.withAccountLocks("654321", "123456", () -> null)).get();
+            holder.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        Timer wait = meterRegistry.get("bank.account.lock.wait").timer();
+        assertEquals(2, wait.count());
+        assertTrue(wait.max(TimeUnit.MILLISECONDS) >= 100, "max wait " + wait.max(TimeUnit.MILLISECONDS));
+    }
+}
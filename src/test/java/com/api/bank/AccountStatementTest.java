@@ -0,0 +1,222 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.PostingRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.services.LedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class AccountStatementTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private Account fromAccount;
+
+    @BeforeEach
+    void setUp() {
+        postingRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        fromAccount = open(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        open(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private Account open(Account account) {
+        accountRepository.save(account);
+        account.setLedgerCheckpoint(ledgerService.recordAdjustment(account, account.getBalance()).getId());
+        return accountRepository.save(account);
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private void transfer(String token, long amount, int expectedStatus) throws Exception {
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(amount))
+                .build();
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    @Test
+    @DisplayName("GET /accounts/{id}/statement should page entries with DB-computed running balances")
+    void shouldPageStatementWithRunningBalances() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transfer(adminToken, 100, 201);
+        transfer(adminToken, 100, 201);
+        transfer(adminToken, 100, 201);
+
+        var firstPage = mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.number", is("123456")))
+                .andExpect(jsonPath("$.openingBalance", is(0.0)))
+                .andExpect(jsonPath("$.entries", hasSize(2)))
+                .andExpect(jsonPath("$.entries[0].amount", is(2000.0)))
+                .andExpect(jsonPath("$.entries[0].transactionId").doesNotExist())
+                .andExpect(jsonPath("$.entries[1].amount", is(-100.0)))
+                .andExpect(jsonPath("$.entries[1].balance", is(1900.0)))
+                .andExpect(jsonPath("$.entries[1].counterparty", is("654321")))
+                .andExpect(jsonPath("$.closingBalance", is(1900.0)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn();
+
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance", is(1900.0)))
+                .andExpect(jsonPath("$.entries", hasSize(2)))
+                .andExpect(jsonPath("$.entries[0].balance", is(1800.0)))
+                .andExpect(jsonPath("$.entries[1].balance", is(1700.0)))
+                .andExpect(jsonPath("$.closingBalance", is(1700.0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /accounts/{id}/statement should start the window at the opening balance of the period")
+    void shouldOpenPeriodWithPriorBalance() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transfer(adminToken, 100, 201);
+        LocalDateTime from = LocalDateTime.now();
+        transfer(adminToken, 250, 201);
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance", is(1900.0)))
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.entries[0].amount", is(-250.0)))
+                .andExpect(jsonPath("$.closingBalance", is(1650.0)));
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(0)))
+                .andExpect(jsonPath("$.openingBalance", is(1650.0)))
+                .andExpect(jsonPath("$.closingBalance", is(1650.0)));
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.minusDays(1).toString())
+                        .param("to", from.minusHours(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(0)))
+                .andExpect(jsonPath("$.openingBalance", is(0.0)))
+                .andExpect(jsonPath("$.closingBalance", is(0.0)));
+    }
+
+    @Test
+    @DisplayName("GET /accounts/{id}/statement should be limited to the owner or an admin")
+    void shouldRestrictStatement() throws Exception {
+        String userToken = registerAndLogin("user@example.com", "userpass", "USER");
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("You do not have permission to access this account.")));
+    }
+}
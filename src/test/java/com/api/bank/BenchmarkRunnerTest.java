@@ -0,0 +1,44 @@
+package com.api.bank;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH benchmarks kept next to the tests (the {@code *Benchmark} classes), which
+ * see the application classes and the test dependencies. Skipped unless a benchmark is
+ * selected with a JMH include pattern, for example:
+ * <pre>
+ * mvn test -Dtest=BenchmarkRunnerTest -Dbenchmark=TransferCredentialBenchmark
+ * mvn test -Dtest=BenchmarkRunnerTest -Dbenchmark=TokenServiceBenchmark -Dbenchmark.profilers=gc
+ * </pre>
+ * Forks, warmup and measurement are set on each benchmark class.
+ */
+class BenchmarkRunnerTest {
+
+    @Test
+    @DisplayName("Selected JMH benchmarks should run")
+    @EnabledIfSystemProperty(named = "benchmark", matches = ".+")
+    void runBenchmarks() throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("benchmark"));
+        Arrays.stream(System.getProperty("benchmark.profilers", "").split(","))
+                .map(String::trim)
+                .filter(profiler -> !profiler.isEmpty())
+                .forEach(options::addProfiler);
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        assertFalse(results.isEmpty(), "no benchmark matched " + System.getProperty("benchmark"));
+    }
+}
@@ -0,0 +1,239 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.exceptions.transaction.InsufficientBalanceException;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.services.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ConcurrentTransferTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+
+        adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private Future<Integer> submitTransfer(ExecutorService executor, String from, String to, long amount) throws Exception {
+        String body = objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                .fromAccount(from)
+                .toAccount(to)
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(amount))
+                .build());
+        return executor.submit(() -> mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse().getStatus());
+    }
+
+    private BigDecimal balanceOf(String number) {
+        return accountRepository.findByNumber(number).orElseThrow().getBalance().toBigDecimal();
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers A->B and B->A should all complete without deadlock or lost updates")
+    void shouldTransferInOppositeDirectionsConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(submitTransfer(executor, "123456", "654321", 10));
+                results.add(submitTransfer(executor, "654321", "123456", 10));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(201, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, balanceOf("123456").compareTo(BigDecimal.valueOf(2000)));
+        assertEquals(0, balanceOf("654321").compareTo(BigDecimal.valueOf(500)));
+        assertEquals(40, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("A transfer whose publish is blocked should not hold up the next transfer between the same accounts")
+    void shouldReleaseLocksBeforePublishing() throws Exception {
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch brokerBack = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                publishing.countDown();
+                brokerBack.await(30, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(transactionProducer).sendTransactionEvent(any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> blocked = submitTransfer(executor, "123456", "654321", 10);
+            assertTrue(publishing.await(10, TimeUnit.SECONDS));
+
+            assertEquals(201, submitTransfer(executor, "123456", "654321", 10).get(10, TimeUnit.SECONDS));
+            assertFalse(blocked.isDone());
+
+            brokerBack.countDown();
+            assertEquals(201, blocked.get(30, TimeUnit.SECONDS));
+        } finally {
+            brokerBack.countDown();
+            executor.shutdown();
+        }
+
+        assertEquals(0, balanceOf("123456").compareTo(BigDecimal.valueOf(1980)));
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Concurrent guarded debits should never take an account below zero")
+    void shouldNeverOverdrawUnderConcurrentDebits() throws Exception {
+        long amount = Money.of(BigDecimal.valueOf(300)).minorUnits();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        int succeeded = 0;
+        try {
+            // No account lock is taken, so only the guard in the UPDATE keeps the balance covered.
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(executor.submit(() -> transactionTemplate.execute(status ->
+                        accountRepository.debit("123456", amount, LocalDateTime.now()))));
+            }
+            for (Future<Integer> result : results) {
+                succeeded += result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(6, succeeded);
+        assertEquals(0, balanceOf("123456").compareTo(BigDecimal.valueOf(200)));
+        assertTrue(balanceOf("123456").signum() >= 0);
+    }
+
+    @Test
+    @DisplayName("A withdrawal the balance does not cover should throw and leave the balance unchanged")
+    void shouldRejectUncoveredWithdrawalWithoutWriting() {
+        Account account = accountRepository.findByNumber("123456").orElseThrow();
+
+        assertThrows(InsufficientBalanceException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                accountService.withdraw(account, Money.of(BigDecimal.valueOf(2000.01)))));
+
+        assertEquals(0, balanceOf("123456").compareTo(BigDecimal.valueOf(2000)));
+    }
+}
@@ -0,0 +1,218 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.HotSlotsDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.AccountSlotRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class HotAccountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        accountSlotRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        merchant = accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private void makeHot(String token, int slots, int expectedStatus) throws Exception {
+        mockMvc.perform(put("/accounts/" + merchant.getId() + "/hot-slots")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new HotSlotsDTO(slots))))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    private String transferBody(String from, String to, long amount) throws Exception {
+        return objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                .fromAccount(from)
+                .toAccount(to)
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(amount))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Credits to a hot account should land on its slots and show in the summed balance")
+    void shouldSpreadCreditsOverSlots() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        makeHot(adminToken, 8, 200);
+        assertEquals(8, accountSlotRepository.findByAccountId(merchant.getId()).size());
+
+        String body = transferBody("123456", "654321", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> mockMvc.perform(post("/transactions/")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus()));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(201, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Money.of(BigDecimal.valueOf(500)), accountRepository.findByNumber("654321").orElseThrow().getBalance());
+        assertEquals(Money.of(BigDecimal.valueOf(2000)).minorUnits(), accountSlotRepository.sumByAccountId(merchant.getId()));
+
+        mockMvc.perform(get("/accounts/" + merchant.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance", is(2500.0)))
+                .andExpect(jsonPath("$.hotSlots", is(8)));
+    }
+
+    @Test
+    @DisplayName("A debit larger than the hot account row should drain the slots first")
+    void shouldDrainSlotsOnDebit() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        makeHot(adminToken, 4, 200);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/transactions/")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(transferBody("123456", "654321", 300)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transferBody("654321", "123456", 1000)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transferBody("654321", "123456", 1000)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Insufficient balance.")));
+
+        assertEquals(Money.of(BigDecimal.valueOf(400)), accountRepository.findByNumber("654321").orElseThrow().getBalance());
+        assertEquals(0, accountSlotRepository.sumByAccountId(merchant.getId()));
+    }
+
+    @Test
+    @DisplayName("PUT /accounts/{id}/hot-slots should only let the slots grow")
+    void shouldOnlyGrowSlots() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String userToken = registerAndLogin("user@example.com", "userpass", "USER");
+
+        makeHot(userToken, 4, 403);
+        makeHot(adminToken, 1, 400);
+        makeHot(adminToken, 4, 200);
+        makeHot(adminToken, 2, 400);
+        makeHot(adminToken, 6, 200);
+
+        assertEquals(6, accountSlotRepository.findByAccountId(merchant.getId()).size());
+        assertEquals(6, accountRepository.findByNumber("654321").orElseThrow().getHotSlots());
+    }
+}
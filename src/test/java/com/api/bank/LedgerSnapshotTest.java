@@ -0,0 +1,240 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.PostingRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.services.LedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "bank.ledger.balance-mode=snapshot")
+@AutoConfigureMockMvc
+class LedgerSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        postingRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        open(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        open(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private void open(Account account) {
+        accountRepository.save(account);
+        account.setLedgerCheckpoint(ledgerService.recordAdjustment(account, account.getBalance()).getId());
+        accountRepository.save(account);
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private void transfer(String token, long amount, int expectedStatus) throws Exception {
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(amount))
+                .build();
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    private Money snapshotOf(String number) {
+        return accountRepository.findByNumber(number).orElseThrow().getBalance();
+    }
+
+    @Test
+    @DisplayName("Transfers in snapshot mode should only append postings until the checkpoint")
+    void shouldAppendPostingsAndCheckpoint() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        transfer(adminToken, 100, 201);
+        transfer(adminToken, 100, 201);
+        transfer(adminToken, 100, 201);
+
+        assertEquals(8, postingRepository.count());
+        assertEquals(Money.of(BigDecimal.valueOf(2000)), snapshotOf("123456"));
+
+        Account fromAccount = accountRepository.findByNumber("123456").orElseThrow();
+        mockMvc.perform(get("/accounts/" + fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance", is(1700.0)));
+
+        ledgerService.checkpoint();
+
+        assertEquals(Money.of(BigDecimal.valueOf(1700)), snapshotOf("123456"));
+        assertEquals(Money.of(BigDecimal.valueOf(800)), snapshotOf("654321"));
+    }
+
+    @Test
+    @DisplayName("Transfers in snapshot mode should be checked against snapshot plus postings")
+    void shouldRejectOverdraftAgainstLedger() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        transfer(adminToken, 1500, 201);
+        transfer(adminToken, 1500, 400);
+
+        assertEquals(4, postingRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /ledger/rebuild should recompute every balance from the postings")
+    void shouldRebuildBalances() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        transfer(adminToken, 250, 201);
+        accountRepository.findByNumber("123456").ifPresent(account -> {
+            account.setBalance(Money.ZERO);
+            account.setLedgerCheckpoint(0);
+            accountRepository.save(account);
+        });
+
+        mockMvc.perform(post("/ledger/rebuild")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts", is(2)));
+
+        assertEquals(Money.of(BigDecimal.valueOf(1750)), snapshotOf("123456"));
+        assertEquals(Money.of(BigDecimal.valueOf(750)), snapshotOf("654321"));
+    }
+
+    @Test
+    @DisplayName("Statements in snapshot mode should be anchored on the checkpoint, not the whole history")
+    void shouldAnchorStatementOnCheckpoint() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transfer(adminToken, 100, 201);
+        transfer(adminToken, 100, 201);
+        ledgerService.checkpoint();
+        Account fromAccount = accountRepository.findByNumber("123456").orElseThrow();
+
+        // A page older than the checkpoint walks back from the snapshot.
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance", is(0.0)))
+                .andExpect(jsonPath("$.entries[1].balance", is(1900.0)))
+                .andExpect(jsonPath("$.closingBalance", is(1900.0)));
+
+        // Postings folded into the snapshot are no longer needed for newer periods.
+        postingRepository.deleteAllInBatch(postingRepository.findAll().stream()
+                .filter(posting -> posting.getAccountId().equals(fromAccount.getId()))
+                .filter(posting -> posting.getId() <= fromAccount.getLedgerCheckpoint())
+                .toList());
+        LocalDateTime from = LocalDateTime.now();
+        transfer(adminToken, 250, 201);
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance", is(1800.0)))
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.closingBalance", is(1550.0)));
+
+        mockMvc.perform(get("/accounts/{id}/statement", fromAccount.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("from", from.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(0)))
+                .andExpect(jsonPath("$.openingBalance", is(1550.0)))
+                .andExpect(jsonPath("$.closingBalance", is(1550.0)));
+    }
+}
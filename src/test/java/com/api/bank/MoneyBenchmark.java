@@ -0,0 +1,81 @@
+package com.api.bank;
+
+import com.api.bank.entities.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic of one transfer: coverage check, debit and credit between two
+ * balances, with {@link Money} against the {@code BigDecimal} it replaced. Amounts
+ * rotate through a table so the JIT cannot fold them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    private final Money[] moneyAmounts = new Money[AMOUNTS];
+    private final BigDecimal[] decimalAmounts = new BigDecimal[AMOUNTS];
+    private Money moneyFrom;
+    private Money moneyTo;
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < AMOUNTS; i++) {
+            long cents = 1 + random.nextInt(100_000);
+            moneyAmounts[i] = Money.ofMinor(cents);
+            decimalAmounts[i] = BigDecimal.valueOf(cents, Money.SCALE);
+        }
+        moneyFrom = Money.ofMinor(1_000_000_00L);
+        moneyTo = Money.ofMinor(1_000_000_00L);
+        decimalFrom = BigDecimal.valueOf(1_000_000_00L, Money.SCALE);
+        decimalTo = BigDecimal.valueOf(1_000_000_00L, Money.SCALE);
+    }
+
+    @Benchmark
+    public Money money() {
+        Money amount = moneyAmounts[next++ & (AMOUNTS - 1)];
+        if (moneyFrom.isLessThan(amount)) {
+            Money swap = moneyFrom;
+            moneyFrom = moneyTo;
+            moneyTo = swap;
+        }
+        moneyFrom = moneyFrom.minus(amount);
+        moneyTo = moneyTo.plus(amount);
+        return moneyFrom;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal amount = decimalAmounts[next++ & (AMOUNTS - 1)];
+        if (decimalFrom.compareTo(amount) < 0) {
+            BigDecimal swap = decimalFrom;
+            decimalFrom = decimalTo;
+            decimalTo = swap;
+        }
+        decimalFrom = decimalFrom.subtract(amount);
+        decimalTo = decimalTo.add(amount);
+        return decimalFrom;
+    }
+}
@@ -0,0 +1,45 @@
+package com.api.bank;
+
+import com.api.bank.entities.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Money should do exact arithmetic in minor units")
+    void shouldDoExactArithmetic() {
+        Money balance = Money.of(new BigDecimal("250.50"));
+
+        assertEquals(25050, balance.minorUnits());
+        assertEquals(Money.of(new BigDecimal("250.60")), balance.plus(Money.of(new BigDecimal("0.1"))));
+        assertEquals(Money.of(new BigDecimal("-49.50")), balance.minus(Money.of(BigDecimal.valueOf(300))));
+        assertTrue(balance.isLessThan(Money.of(BigDecimal.valueOf(251))));
+    }
+
+    @Test
+    @DisplayName("Money should reject sub-cent amounts and overflow")
+    void shouldRejectInexactValues() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    @DisplayName("Money should keep the decimal JSON format")
+    void shouldSerializeAsDecimal() throws Exception {
+        Money amount = Money.of(new BigDecimal("1000.5"));
+
+        assertEquals("1000.50", objectMapper.writeValueAsString(amount));
+        assertEquals(amount, objectMapper.readValue("1000.5", Money.class));
+    }
+}
@@ -0,0 +1,128 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.security.PasswordHashingBulkhead;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"bank.auth.hashing.threads=1", "bank.auth.hashing.queue-capacity=1"})
+@AutoConfigureMockMvc
+class PasswordHashingBulkheadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PasswordHashingBulkhead passwordHashingBulkhead;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private String loginBody(String email, String password) throws Exception {
+        return objectMapper.writeValueAsString(new AuthenticationDTO(email, password));
+    }
+
+    @Test
+    @DisplayName("POST /auth/login should return 429 with Retry-After while the hashing pool is full, and succeed once it drains")
+    void shouldShedLoginsWhenFull() throws Exception {
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new RegisterDTO("user@example.com", "userpass", UserRole.USER))))
+                .andExpect(status().isOk());
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // One task holds the only hashing thread and a second one fills the queue.
+            executor.submit(() -> passwordHashingBulkhead.execute(() -> {
+                running.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> passwordHashingBulkhead.execute(() -> null));
+            while (meterRegistry.get("bank.auth.hashing.queue").gauge().value() < 1) {
+                Thread.sleep(10);
+            }
+
+            mockMvc.perform(post("/auth/login")
+                            .contentType("application/json")
+                            .content(loginBody("user@example.com", "userpass")))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.message", is("Too many authentication requests, please retry later.")));
+            assertEquals(1, meterRegistry.get("bank.auth.hashing.rejections").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(loginBody("user@example.com", "userpass")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", notNullValue()));
+        mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(loginBody("user@example.com", "wrongpass")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
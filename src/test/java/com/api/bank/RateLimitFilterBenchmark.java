@@ -0,0 +1,102 @@
+package com.api.bank;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.security.RateLimitFilter;
+import com.api.bank.security.SecurityFilter;
+import com.api.bank.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code RateLimitFilter} adds to an admitted transfer from a logged-in user. The
+ * chain before the limiter, {@code SecurityFilter} alone verifying the bearer token
+ * (a cache hit in {@code TokenService}), against the limiter followed by
+ * {@code SecurityFilter}: the IP bucket, the token verification moved into the limiter
+ * and the user bucket. {@code unlimitedPath} is the limiter on a request outside the
+ * limited paths. The buckets are large enough never to refuse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {
+    };
+
+    private RateLimitFilter rateLimitFilter;
+    private SecurityFilter securityFilter;
+    private FilterChain throughSecurityFilter;
+    private MockHttpServletRequest transfer;
+    private MockHttpServletRequest accounts;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        TokenService tokenService = new TokenService("my-secret-key", 10_000);
+        rateLimitFilter = new RateLimitFilter(1_000_000, Duration.ofNanos(1), 1_000_000, Duration.ofNanos(1),
+                1_000_000, Duration.ofNanos(1), tokenService, new ObjectMapper(), new SimpleMeterRegistry());
+        securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(securityFilter, "tokenService", tokenService);
+        throughSecurityFilter = (request, response) -> securityFilter.doFilter(request, response, NO_OP);
+
+        User user = new User("userteste@example.com", "password", UserRole.USER);
+        user.setId(UUID.randomUUID());
+        transfer = new MockHttpServletRequest("POST", "/transactions/");
+        transfer.addHeader("Authorization", "Bearer " + tokenService.generateToken(user));
+        accounts = new MockHttpServletRequest("GET", "/accounts/");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object securityFilterOnly() throws ServletException, IOException {
+        securityFilter.doFilter(transfer, response, NO_OP);
+        return reset(transfer);
+    }
+
+    @Benchmark
+    public Object rateLimitedTransfer() throws ServletException, IOException {
+        rateLimitFilter.doFilter(transfer, response, throughSecurityFilter);
+        return reset(transfer);
+    }
+
+    @Benchmark
+    public Object unlimitedPath() throws ServletException, IOException {
+        rateLimitFilter.doFilter(accounts, response, NO_OP);
+        return reset(accounts);
+    }
+
+    private Object reset(MockHttpServletRequest request) {
+        for (String attribute : Collections.list(request.getAttributeNames())) {
+            request.removeAttribute(attribute);
+        }
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,175 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"bank.rate-limit.enabled=true",
+                "bank.rate-limit.login.capacity=3", "bank.rate-limit.login.refill-period=1h",
+                "bank.rate-limit.transfer.capacity=2", "bank.rate-limit.transfer.refill-period=1h",
+                "bank.rate-limit.transfer.address-capacity=5", "bank.rate-limit.transfer.address-refill-period=1h"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String registerAndLogin(String email, String password, String remoteAddress) throws Exception {
+        var registerDto = new RegisterDTO(email, password, UserRole.ADMIN);
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var result = login(email, password, remoteAddress)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class).token();
+    }
+
+    private ResultActions login(String email, String password, String remoteAddress) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(new AuthenticationDTO(email, password))));
+    }
+
+    private ResultActions transfer(String token, String password) throws Exception {
+        return transfer(token, password, "127.0.0.1");
+    }
+
+    private ResultActions transfer(String token, String password, String remoteAddress) throws Exception {
+        return mockMvc.perform(post("/transactions/")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                        .fromAccount("123456")
+                        .toAccount("654321")
+                        .passwordUser(password)
+                        .amount(BigDecimal.valueOf(10))
+                        .build())));
+    }
+
+    @Test
+    @DisplayName("POST /auth/login should return 429 with Retry-After once the IP has used its burst")
+    void shouldLimitLoginsPerAddress() throws Exception {
+        registerAndLogin("admin@example.com", "adminpass", "10.0.0.1");
+        login("admin@example.com", "wrongpass", "10.0.0.1").andExpect(status().isUnauthorized());
+        login("admin@example.com", "adminpass", "10.0.0.1").andExpect(status().isOk());
+
+        login("admin@example.com", "adminpass", "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", notNullValue()))
+                .andExpect(jsonPath("$.message", is("Too many requests, please retry later.")));
+        login("admin@example.com", "adminpass", "10.0.0.2").andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should be limited per verified user, leaving other users unaffected")
+    void shouldLimitTransfersPerToken() throws Exception {
+        String firstToken = registerAndLogin("admin@example.com", "adminpass", "10.0.1.1");
+        String secondToken = registerAndLogin("admin2@example.com", "adminpass", "10.0.1.2");
+
+        transfer(firstToken, "adminpass").andExpect(status().isCreated());
+        transfer(firstToken, "adminpass").andExpect(status().isCreated());
+        transfer(firstToken, "adminpass").andExpect(status().isTooManyRequests());
+
+        transfer(secondToken, "adminpass").andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should return 429 to rotating unverifiable tokens once the IP has used its burst")
+    void shouldLimitRotatingGarbageTokensPerAddress() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            transfer("garbage-" + i, "adminpass", "10.0.2.1").andExpect(status().isForbidden());
+        }
+
+        transfer("garbage-5", "adminpass", "10.0.2.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", notNullValue()));
+        transfer("garbage-6", "adminpass", "10.0.2.2").andExpect(status().isForbidden());
+        assertEquals(0, transactionRepository.count());
+    }
+}
@@ -0,0 +1,134 @@
+package com.api.bank;
+
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of {@code GET /transactions/} as returned before and after the slim response
+ * records: JPA entities with their accounts and owners fetched, as the eager mappings did
+ * before, serialized whole, against the constructor-expression query into
+ * {@code TransactionResponseDTO}. Both run against the
+ * application context on H2 and include the JSON encoding. The payload size of each page
+ * is printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class ResponsePayloadBenchmark {
+
+    private static final String ENTITY_PAGE = "select t from transactions t join fetch t.fromAccount f join fetch f.user "
+            + "join fetch t.toAccount d join fetch d.user order by t.dateTransfer desc, t.id desc";
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Passed as arguments, which take precedence over application.properties.
+        context = new SpringApplicationBuilder(BankApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        transactionRepository = context.getBean(TransactionRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed();
+
+        System.out.printf("payload bytes per page of %d: entities=%d, records=%d%n",
+                pageSize, entityPage().length, recordPage().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() {
+        return readOnly.execute(status -> write(entityManager.createQuery(ENTITY_PAGE, Transaction.class)
+                .setMaxResults(pageSize + 1)
+                .getResultList()
+                .subList(0, pageSize)));
+    }
+
+    @Benchmark
+    public byte[] recordPage() {
+        return readOnly.execute(status -> write(transactionRepository.findResponses(Specification.allOf(), pageSize + 1)
+                .subList(0, pageSize)));
+    }
+
+    private byte[] write(Object page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User user = userRepository.save(new User("user" + i + "@example.com", "$2a$10$" + "x".repeat(53), UserRole.USER));
+            accounts.add(accountRepository.save(Account.builder()
+                    .number(String.format("%06d", i))
+                    .balance(Money.of(BigDecimal.valueOf(1_000_000)))
+                    .user(user)
+                    .build()));
+        }
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 10 * pageSize; i++) {
+            transactions.add(Transaction.builder()
+                    .fromAccount(accounts.get(i % accounts.size()))
+                    .toAccount(accounts.get((i + 1) % accounts.size()))
+                    .amount(Money.ofMinor(100 + i))
+                    .status(TransactionStatus.COMPLETED)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
@@ -0,0 +1,273 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.engine.ShardedTransferEngine;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.exceptions.account.AccountNotFoundException;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"bank.transaction.engine=sharded", "bank.transaction.engine.shards=4"})
+@AutoConfigureMockMvc
+class ShardedTransferEngineTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardedTransferEngine transferEngine;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+
+        transferEngine.evict("123456");
+        transferEngine.evict("654321");
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private BigDecimal awaitBalance(String number, BigDecimal expected) throws InterruptedException {
+        BigDecimal balance = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            balance = accountRepository.findByNumber(number).orElseThrow().getBalance().toBigDecimal();
+            if (balance.compareTo(expected) == 0) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return balance;
+    }
+
+    @Test
+    @DisplayName("POST /transactions should apply concurrent transfers from the same account without lost updates")
+    void shouldApplyConcurrentTransfers() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(100))
+                .build();
+        String body = objectMapper.writeValueAsString(dto);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> mockMvc.perform(post("/transactions/")
+                                .header("Authorization", "Bearer " + adminToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus()));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(201, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, awaitBalance("123456", BigDecimal.ZERO).compareTo(BigDecimal.ZERO));
+        assertEquals(0, awaitBalance("654321", BigDecimal.valueOf(2500)).compareTo(BigDecimal.valueOf(2500)));
+        assertEquals(20, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should return 400 when the shard balance does not cover the amount")
+    void shouldRejectInsufficientBalance() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(1500))
+                .build();
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.status", is(TransactionStatus.COMPLETED.name())));
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Insufficient balance.")));
+    }
+
+    @Test
+    @DisplayName("A cached account should be able to spend a credit committed after it was loaded")
+    void shouldSpendCreditReceivedWhileCached() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        // Caches 654321 on its shard at 400, then credits it through another account's shard.
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                                .fromAccount("654321")
+                                .toAccount("123456")
+                                .passwordUser("adminpass")
+                                .amount(BigDecimal.valueOf(100))
+                                .build())))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                                .fromAccount("123456")
+                                .toAccount("654321")
+                                .passwordUser("adminpass")
+                                .amount(BigDecimal.valueOf(1000))
+                                .build())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                                .fromAccount("654321")
+                                .toAccount("123456")
+                                .passwordUser("adminpass")
+                                .amount(BigDecimal.valueOf(1400))
+                                .build())))
+                .andExpect(status().isCreated());
+
+        assertEquals(0, awaitBalance("654321", BigDecimal.ZERO).compareTo(BigDecimal.ZERO));
+        assertEquals(0, awaitBalance("123456", BigDecimal.valueOf(2500)).compareTo(BigDecimal.valueOf(2500)));
+    }
+
+    @Test
+    @DisplayName("A transfer whose destination vanished should fail without touching the source balance")
+    void shouldFailTransferToVanishedDestination() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        // The destination passed authorization but is gone by the time the shard persists.
+        Transaction orphan = Transaction.builder()
+                .fromAccount(accountRepository.findByNumber("123456").orElseThrow())
+                .toAccount(Account.builder().number("999999").build())
+                .amount(Money.of(BigDecimal.valueOf(300)))
+                .build();
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> transferEngine.submit(orphan).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(AccountNotFoundException.class, failure.getCause());
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal()
+                .compareTo(BigDecimal.valueOf(2000)));
+        assertEquals(0, transactionRepository.count());
+
+        // The shard gave the failed debit back, so the whole balance can still be spent.
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                                .fromAccount("123456")
+                                .toAccount("654321")
+                                .passwordUser("adminpass")
+                                .amount(BigDecimal.valueOf(2000))
+                                .build())))
+                .andExpect(status().isCreated());
+        assertEquals(0, awaitBalance("654321", BigDecimal.valueOf(2500)).compareTo(BigDecimal.valueOf(2500)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.api.bank;
+
+import com.api.bank.concurrency.TokenBucketLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    @DisplayName("A bucket should allow its burst, then one request per refill period")
+    void shouldAllowBurstThenRefill() throws InterruptedException {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(3, Duration.ofMillis(200));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        long wait = limiter.tryAcquire("client");
+        assertTrue(wait > 0 && wait <= Duration.ofMillis(200).toNanos());
+        assertEquals(0, limiter.tryAcquire("other"));
+
+        Thread.sleep(Duration.ofNanos(wait).toMillis() + 20);
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    @DisplayName("Only buckets that have refilled completely should be evicted")
+    void shouldEvictIdleBuckets() throws InterruptedException {
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(2, Duration.ofMillis(100));
+        limiter.tryAcquire("idle");
+        Thread.sleep(150);
+        limiter.tryAcquire("busy");
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.api.bank;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.security.SecurityFilter;
+import com.api.bank.security.TokenService;
+import com.api.bank.security.UserPrincipal;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticating a request that carries the same bearer token as the previous one. The
+ * token check as it was before the shared verifier, building the HMAC algorithm and the
+ * verifier on every call, against the shared verifier alone and against
+ * {@code TokenService.validateToken}, which answers a repeated token from its cache.
+ * {@code securityFilter} runs the whole {@code SecurityFilter} on a mock request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "my-secret-key";
+    private static final String ISSUER = "bank-auth-api";
+
+    private static final FilterChain NO_OP = (request, response) -> {
+    };
+
+    private TokenService tokenService;
+    private SecurityFilter securityFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private JWTVerifier sharedVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(SECRET, 10_000);
+        securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(securityFilter, "tokenService", tokenService);
+        sharedVerifier = verifier(Algorithm.HMAC256(SECRET));
+
+        User user = new User("userteste@example.com", "password", UserRole.USER);
+        user.setId(UUID.randomUUID());
+        token = tokenService.generateToken(user);
+        request = new MockHttpServletRequest("GET", "/accounts/");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public DecodedJWT rebuiltVerifier() {
+        return verifier(Algorithm.HMAC256(SECRET)).verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT sharedVerifier() {
+        return sharedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public UserPrincipal cachedToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public Object securityFilter() throws ServletException, IOException {
+        securityFilter.doFilter(request, response, NO_OP);
+        request.removeAttribute(SecurityFilter.class.getName() + ".FILTERED");
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JWTVerifier verifier(Algorithm algorithm) {
+        return JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .withClaimPresence("uid")
+                .withClaimPresence("role")
+                .build();
+    }
+}
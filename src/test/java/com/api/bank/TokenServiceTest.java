@@ -0,0 +1,77 @@
+package com.api.bank;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.security.TokenService;
+import com.api.bank.security.UserPrincipal;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final TokenService tokenService = new TokenService(SECRET, 100);
+
+    private String tokenExpiringAt(Instant expiresAt, UUID userId) {
+        return JWT.create()
+                .withIssuer("bank-auth-api")
+                .withSubject("user@example.com")
+                .withClaim("uid", userId.toString())
+                .withClaim("role", UserRole.USER.name())
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    @Test
+    @DisplayName("A generated token should verify to its user, and again from the cache")
+    void shouldVerifyGeneratedToken() {
+        User user = new User("admin@example.com", "hash", UserRole.ADMIN);
+        user.setId(UUID.randomUUID());
+        String token = tokenService.generateToken(user);
+
+        UserPrincipal principal = tokenService.validateToken(token);
+
+        assertEquals(new UserPrincipal(user.getId(), "admin@example.com", UserRole.ADMIN), principal);
+        assertSame(principal, tokenService.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("A token signed with another secret or altered should be rejected")
+    void shouldRejectForgedToken() {
+        String token = tokenExpiringAt(Instant.now().plusSeconds(60), UUID.randomUUID());
+        String forged = JWT.create()
+                .withIssuer("bank-auth-api")
+                .withSubject("user@example.com")
+                .withClaim("uid", UUID.randomUUID().toString())
+                .withClaim("role", UserRole.ADMIN.name())
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.HMAC256("another-secret"));
+
+        assertNotNull(tokenService.validateToken(token));
+        assertNull(tokenService.validateToken(forged));
+        assertNull(tokenService.validateToken(token.substring(0, token.length() - 2)));
+    }
+
+    @Test
+    @DisplayName("A cached token should stop verifying once it expires")
+    void shouldExpireCachedToken() throws InterruptedException {
+        Instant expiresAt = Instant.now().plusSeconds(2);
+        String token = tokenExpiringAt(expiresAt, UUID.randomUUID());
+
+        assertNotNull(tokenService.validateToken(token));
+        Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 1100);
+
+        assertNull(tokenService.validateToken(token));
+    }
+}
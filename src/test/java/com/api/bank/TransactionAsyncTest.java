@@ -0,0 +1,237 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.api.bank.services.AsyncTransferService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TransactionAsyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private String login(String email, String password) throws Exception {
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class).token();
+    }
+
+    private String submit(String token, String password, BigDecimal amount) throws Exception {
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser(password)
+                .amount(amount)
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/transactions/async")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/status")))
+                .andExpect(jsonPath("$.status", is(TransactionStatus.PENDING.name())))
+                .andReturn();
+        return result.getResponse().getHeader("Location");
+    }
+
+    private MvcResult longPoll(String token, String location) throws Exception {
+        MvcResult pending = mockMvc.perform(get(location)
+                        .header("Authorization", "Bearer " + token)
+                        .param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @Test
+    @DisplayName("POST /transactions/async should return 202 and complete the transfer in the background")
+    void shouldCompleteAsyncTransfer() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        String location = submit(adminToken, "adminpass", BigDecimal.valueOf(300));
+        MvcResult result = longPoll(adminToken, location);
+
+        assertEquals(TransactionStatus.COMPLETED.name(), JsonPath.read(result.getResponse().getContentAsString(), "$.status"));
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(1700)));
+        assertEquals(0, accountRepository.findByNumber("654321").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(800)));
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /transactions/async should report a failed password check through the status URL")
+    void shouldReportAsyncFailure() throws Exception {
+        User user = (User) userRepository.findByEmail("userteste@example.com");
+        String userToken = login(user.getEmail(), "userpass");
+
+        String location = submit(userToken, "qualquer", BigDecimal.valueOf(300));
+        MvcResult result = longPoll(userToken, location);
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals(TransactionStatus.FAILED.name(), JsonPath.read(body, "$.status"));
+        assertEquals("Invalid account password.", JsonPath.read(body, "$.message"));
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(2000)));
+    }
+
+    @Test
+    @DisplayName("POST /transactions/async should reject cheap rule violations synchronously")
+    void shouldRejectSameAccountSynchronously() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("123456")
+                .passwordUser("adminpass")
+                .amount(BigDecimal.valueOf(100))
+                .build();
+
+        mockMvc.perform(post("/transactions/async")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Transfer to the same account is not allowed.")));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Startup should fail the transfers a previous process left pending")
+    void shouldFailTransfersLeftPendingByPreviousProcess() {
+        Transaction orphan = savePending();
+        Transaction current = savePending();
+        jdbcTemplate.update("update transactions set date_transfer = ? where id = ?",
+                LocalDateTime.of(2020, 1, 1, 0, 0), orphan.getId());
+
+        asyncTransferService.recoverPending();
+
+        Transaction recovered = transactionRepository.findById(orphan.getId()).orElseThrow();
+        assertEquals(TransactionStatus.FAILED, recovered.getStatus());
+        assertThat(recovered.getFailureReason(), containsString("restart"));
+        assertEquals(TransactionStatus.PENDING, transactionRepository.findById(current.getId()).orElseThrow().getStatus());
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(2000)));
+    }
+
+    private Transaction savePending() {
+        return transactionRepository.save(Transaction.builder()
+                .fromAccount(accountRepository.findByNumber("123456").orElseThrow())
+                .toAccount(accountRepository.findByNumber("654321").orElseThrow())
+                .amount(Money.of(BigDecimal.valueOf(100)))
+                .status(TransactionStatus.PENDING)
+                .build());
+    }
+}
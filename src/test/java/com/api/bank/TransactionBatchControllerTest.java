@@ -0,0 +1,177 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.TransactionBatchPostDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TransactionBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String login(String email, String password) throws Exception {
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private TransactionPostDTO transfer(String from, String to, long amount) {
+        return TransactionPostDTO.builder()
+                .fromAccount(from)
+                .toAccount(to)
+                .passwordUser("userpass")
+                .amount(BigDecimal.valueOf(amount))
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST /transactions/batch should apply valid items and report failed ones")
+    void shouldApplyBatchWithPerItemResults() throws Exception {
+        String token = login("userteste@example.com", "userpass");
+
+        TransactionBatchPostDTO batch = new TransactionBatchPostDTO(List.of(
+                transfer("123456", "654321", 500),
+                transfer("123456", "999999", 100),
+                transfer("123456", "654321", 1000),
+                transfer("123456", "654321", 1000),
+                transfer("654321", "123456", 10)
+        ), false);
+
+        mockMvc.perform(post("/transactions/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed", is(2)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.results[0].status", is(TransactionStatus.COMPLETED.name())))
+                .andExpect(jsonPath("$.results[0].transactionId", notNullValue()))
+                .andExpect(jsonPath("$.results[1].message", containsString("Account not found.")))
+                .andExpect(jsonPath("$.results[2].status", is(TransactionStatus.COMPLETED.name())))
+                .andExpect(jsonPath("$.results[3].message", containsString("Insufficient balance.")))
+                .andExpect(jsonPath("$.results[4].message", containsString("You do not have permission to perform this transaction.")));
+
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(500)));
+        assertEquals(0, accountRepository.findByNumber("654321").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(2000)));
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /transactions/batch in atomic mode should apply nothing when an item fails")
+    void shouldRollBackAtomicBatch() throws Exception {
+        String token = login("userteste@example.com", "userpass");
+
+        TransactionBatchPostDTO batch = new TransactionBatchPostDTO(List.of(
+                transfer("123456", "654321", 500),
+                transfer("123456", "654321", 5000)
+        ), true);
+
+        mockMvc.perform(post("/transactions/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed", is(0)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.results[1].message", containsString("Insufficient balance.")));
+
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(2000)));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /transactions/batch should return 400 when the batch is empty")
+    void shouldRejectEmptyBatch() throws Exception {
+        String token = login("userteste@example.com", "userpass");
+
+        mockMvc.perform(post("/transactions/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransactionBatchPostDTO(List.of(), false))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasItem("At least one transaction is required.")));
+    }
+}
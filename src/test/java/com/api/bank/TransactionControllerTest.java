@@ -5,6 +5,7 @@ import com.api.bank.dtos.LoginResponseDTO;
 import com.api.bank.dtos.RegisterDTO;
 import com.api.bank.dtos.TransactionPostDTO;
 import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
 import com.api.bank.entities.Transaction;
 import com.api.bank.entities.user.User;
 import com.api.bank.enums.TransactionStatus;
@@ -72,13 +73,13 @@ class TransactionControllerTest {
 
         Account fromAccount = Account.builder()
                 .number("123456")
-                .balance(BigDecimal.valueOf(2000))
+                .balance(Money.of(BigDecimal.valueOf(2000)))
                 .user(user)
                 .build();
 
         Account toAccount = Account.builder()
                 .number("654321")
-                .balance(BigDecimal.valueOf(500))
+                .balance(Money.of(BigDecimal.valueOf(500)))
                 .user(user2)
                 .build();
 
@@ -88,7 +89,7 @@ class TransactionControllerTest {
         transaction = Transaction.builder()
                 .fromAccount(fromAccount)
                 .toAccount(toAccount)
-                .amount(BigDecimal.valueOf(250.5))
+                .amount(Money.of(BigDecimal.valueOf(250.5)))
                 .status(TransactionStatus.COMPLETED)
                 .build();
 
@@ -142,7 +143,7 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$[0].id", notNullValue()))
                 .andExpect(jsonPath("$[0].fromAccount.number", is(transaction.getFromAccount().getNumber())))
                 .andExpect(jsonPath("$[0].toAccount.number", is(transaction.getToAccount().getNumber())))
-                .andExpect(jsonPath("$[0].amount", is(transaction.getAmount().doubleValue())))
+                .andExpect(jsonPath("$[0].amount", is(transaction.getAmount().toBigDecimal().doubleValue())))
                 .andExpect(jsonPath("$[0].status", is(transaction.getStatus().name())));
     }
 
@@ -252,8 +253,8 @@ class TransactionControllerTest {
         BigDecimal expectedFromBalance = BigDecimal.valueOf(2000.0).subtract(BigDecimal.valueOf(1000.0));
         BigDecimal expectedToBalance = BigDecimal.valueOf(500.0).add(BigDecimal.valueOf(1000.0));
 
-        assertEquals(0, updatedFromAccount.getBalance().compareTo(expectedFromBalance));
-        assertEquals(0, updatedToAccount.getBalance().compareTo(expectedToBalance));
+        assertEquals(0, updatedFromAccount.getBalance().toBigDecimal().compareTo(expectedFromBalance));
+        assertEquals(0, updatedToAccount.getBalance().toBigDecimal().compareTo(expectedToBalance));
     }
 
     @Test
@@ -285,8 +286,8 @@ class TransactionControllerTest {
         BigDecimal expectedFromBalance = BigDecimal.valueOf(2000.0).subtract(BigDecimal.valueOf(1000.0));
         BigDecimal expectedToBalance = BigDecimal.valueOf(500.0).add(BigDecimal.valueOf(1000.0));
 
-        assertEquals(0, updatedFromAccount.getBalance().compareTo(expectedFromBalance));
-        assertEquals(0, updatedToAccount.getBalance().compareTo(expectedToBalance));
+        assertEquals(0, updatedFromAccount.getBalance().toBigDecimal().compareTo(expectedFromBalance));
+        assertEquals(0, updatedToAccount.getBalance().toBigDecimal().compareTo(expectedToBalance));
     }
 
     @Test
@@ -350,6 +351,27 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Insufficient balance.")));
     }
 
+    @Test
+    @DisplayName("POST /transactions should reject an overdraft before checking the password")
+    void shouldRejectOverdraftBeforePassword() throws Exception {
+        User user = (User) userRepository.findByEmail("userteste@example.com");
+        String userToken = login(user.getEmail(), "userpass");
+
+        TransactionPostDTO dto = TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("qualquer")
+                .amount(BigDecimal.valueOf(5000))
+                .build();
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Insufficient balance.")));
+    }
+
     @Test
     @DisplayName("POST /transactions should return 400 when from and to accounts are the same")
     void shouldReturn400WhenFromAndToAccountsAreTheSame() throws Exception {
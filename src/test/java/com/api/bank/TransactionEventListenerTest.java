@@ -0,0 +1,53 @@
+package com.api.bank;
+
+import com.api.bank.kafka.event.TransactionCreatedEvent;
+import com.api.bank.kafka.event.TransactionEvent;
+import com.api.bank.kafka.event.TransactionEventListener;
+import com.api.bank.kafka.producer.TransactionProducer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class TransactionEventListenerTest {
+
+    private final TransactionProducer transactionProducer = mock(TransactionProducer.class);
+    private final TransactionCreatedEvent event = new TransactionCreatedEvent(new TransactionEvent());
+
+    private TransactionEventListener listener(boolean virtualThreads) {
+        TransactionEventListener listener = new TransactionEventListener();
+        ReflectionTestUtils.setField(listener, "transactionProducer", transactionProducer);
+        ReflectionTestUtils.setField(listener, "virtualThreads", virtualThreads);
+        ReflectionTestUtils.invokeMethod(listener, "start");
+        return listener;
+    }
+
+    @Test
+    @DisplayName("A failed publish on the committing thread should propagate to it")
+    void shouldPropagateFailureOnCommittingThread() {
+        doThrow(new IllegalStateException("broker down")).when(transactionProducer).sendTransactionEvent(any());
+        TransactionEventListener listener = listener(false);
+
+        assertThrows(IllegalStateException.class, () -> listener.handleTransactionCreatedEvent(event));
+    }
+
+    @Test
+    @DisplayName("A failed publish handed off to a virtual thread should not reach the committing thread")
+    void shouldContainFailureOnVirtualThread() {
+        doThrow(new IllegalStateException("broker down")).when(transactionProducer).sendTransactionEvent(any());
+        TransactionEventListener listener = listener(true);
+        try {
+            listener.handleTransactionCreatedEvent(event);
+
+            verify(transactionProducer, timeout(5000)).sendTransactionEvent(any());
+        } finally {
+            ReflectionTestUtils.invokeMethod(listener, "stop");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TransactionExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private Account fromAccount;
+
+    private Account toAccount;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        fromAccount = accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        toAccount = accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+
+        for (int i = 1; i <= 5; i++) {
+            transactionRepository.save(Transaction.builder()
+                    .fromAccount(fromAccount)
+                    .toAccount(toAccount)
+                    .amount(Money.of(BigDecimal.valueOf(i * 10)))
+                    .status(i == 5 ? TransactionStatus.FAILED : TransactionStatus.COMPLETED)
+                    .failureReason(i == 5 ? "Insufficient balance, \"retry\" later" : null)
+                    .build());
+        }
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private String export(String path, String token, String format) throws Exception {
+        MvcResult started = mockMvc.perform(get(path)
+                        .header("Authorization", "Bearer " + token)
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    @DisplayName("GET /transactions/export should stream every transaction as NDJSON, oldest first")
+    void shouldExportNdjson() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        String[] lines = export("/transactions/export", adminToken, "ndjson").split("\n");
+
+        assertEquals(5, lines.length);
+        var first = objectMapper.readTree(lines[0]);
+        assertEquals("123456", first.get("fromAccount").asText());
+        assertEquals("654321", first.get("toAccount").asText());
+        assertEquals(10.0, first.get("amount").asDouble());
+        assertEquals("FAILED", objectMapper.readTree(lines[4]).get("status").asText());
+    }
+
+    @Test
+    @DisplayName("GET /transactions/{id}/export should stream the account history as CSV")
+    void shouldExportCsv() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        String[] lines = export("/transactions/" + fromAccount.getId() + "/export", adminToken, "csv").split("\n");
+
+        assertEquals(6, lines.length);
+        assertEquals("id,dateTransfer,fromAccount,toAccount,amount,status,failureReason", lines[0]);
+        assertTrue(lines[1].endsWith(",123456,654321,10.00,COMPLETED,"));
+        assertTrue(lines[5].endsWith(",FAILED,\"Insufficient balance, \"\"retry\"\" later\""));
+    }
+
+    @Test
+    @DisplayName("GET /transactions/{id}/export should merge sent and received transfers, oldest first")
+    void shouldExportSentAndReceived() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        transactionRepository.save(Transaction.builder()
+                .fromAccount(toAccount)
+                .toAccount(fromAccount)
+                .amount(Money.of(BigDecimal.valueOf(99)))
+                .status(TransactionStatus.COMPLETED)
+                .build());
+
+        String[] fromLines = export("/transactions/" + fromAccount.getId() + "/export", adminToken, "csv").split("\n");
+        String[] toLines = export("/transactions/" + toAccount.getId() + "/export", adminToken, "csv").split("\n");
+
+        assertEquals(7, fromLines.length);
+        assertTrue(fromLines[1].endsWith(",123456,654321,10.00,COMPLETED,"));
+        assertTrue(fromLines[6].endsWith(",654321,123456,99.00,COMPLETED,"));
+        assertEquals(List.of(fromLines).subList(1, 7), List.of(toLines).subList(1, 7));
+    }
+
+    @Test
+    @DisplayName("Exports should be limited to admins and account owners")
+    void shouldRestrictExports() throws Exception {
+        String userToken = registerAndLogin("user@example.com", "userpass", "USER");
+
+        mockMvc.perform(get("/transactions/export")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/transactions/" + fromAccount.getId() + "/export")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("You do not have permission to access this account.")));
+    }
+
+    @Test
+    @DisplayName("Exports should return 400 for an unknown format")
+    void shouldRejectUnknownFormat() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        mockMvc.perform(get("/transactions/export")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Unsupported export format")));
+    }
+}
@@ -0,0 +1,283 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.services.LedgerService;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.IdempotencyKeyRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TransactionIdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    @MockitoSpyBean
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private String transfer(BigDecimal amount) throws Exception {
+        return objectMapper.writeValueAsString(TransactionPostDTO.builder()
+                .fromAccount("123456")
+                .toAccount("654321")
+                .passwordUser("adminpass")
+                .amount(amount)
+                .build());
+    }
+
+    private MvcResult postWithKey(String token, String key, String body) throws Exception {
+        return mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+    }
+
+    @Test
+    @DisplayName("POST /transactions with a repeated Idempotency-Key should replay the first transaction")
+    void shouldReplayRepeatedKey() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+        String body = transfer(BigDecimal.valueOf(100));
+
+        MvcResult first = postWithKey(adminToken, key, body);
+        MvcResult second = postWithKey(adminToken, key, body);
+
+        assertEquals(201, first.getResponse().getStatus());
+        assertEquals(201, second.getResponse().getStatus());
+        String firstId = JsonPath.read(first.getResponse().getContentAsString(), "$.id");
+        String secondId = JsonPath.read(second.getResponse().getContentAsString(), "$.id");
+        assertEquals(firstId, secondId);
+        assertEquals(1, transactionRepository.count());
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(1900)));
+    }
+
+    @Test
+    @DisplayName("POST /transactions should run concurrent duplicates of a key only once")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+        String body = transfer(BigDecimal.valueOf(100));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> postWithKey(adminToken, key, body)));
+            }
+            Set<String> ids = new HashSet<>();
+            for (Future<MvcResult> result : results) {
+                MvcResult response = result.get();
+                assertEquals(201, response.getResponse().getStatus());
+                ids.add(JsonPath.read(response.getResponse().getContentAsString(), "$.id"));
+            }
+            assertEquals(1, ids.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, transactionRepository.count());
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(1900)));
+    }
+
+    @Test
+    @DisplayName("POST /transactions should accept and replay a key of the maximum length")
+    void shouldAcceptKeyOfMaximumLength() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = "k".repeat(255);
+        String body = transfer(BigDecimal.valueOf(100));
+
+        MvcResult first = postWithKey(adminToken, key, body);
+        MvcResult second = postWithKey(adminToken, key, body);
+
+        assertEquals(201, first.getResponse().getStatus());
+        assertEquals(201, second.getResponse().getStatus());
+        assertEquals((String) JsonPath.read(first.getResponse().getContentAsString(), "$.id"),
+                JsonPath.read(second.getResponse().getContentAsString(), "$.id"));
+        assertEquals(1, transactionRepository.count());
+        assertEquals(400, postWithKey(adminToken, key + "k", body).getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should return 422 when a key is reused with a different request")
+    void shouldRejectKeyReusedWithDifferentRequest() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(201, postWithKey(adminToken, key, transfer(BigDecimal.valueOf(100))).getResponse().getStatus());
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer(BigDecimal.valueOf(200))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message", containsString("Idempotency-Key was already used with a different request.")));
+    }
+
+    @Test
+    @DisplayName("POST /transactions should answer the key in the transaction that writes the transfer")
+    void shouldAnswerKeyWithTransfer() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+
+        MvcResult result = postWithKey(adminToken, key, transfer(BigDecimal.valueOf(100)));
+
+        assertEquals(201, result.getResponse().getStatus());
+        String id = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+        var record = idempotencyKeyRepository.findAll().stream()
+                .filter(k -> k.getId().endsWith(":" + key))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(UUID.fromString(id), record.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should release the key of a rejected transfer so it can be retried")
+    void shouldReleaseKeyOfRejectedTransfer() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+        String body = transfer(BigDecimal.valueOf(2500));
+
+        assertEquals(400, postWithKey(adminToken, key, body).getResponse().getStatus());
+        assertFalse(idempotencyKeyRepository.findAll().stream().anyMatch(k -> k.getId().endsWith(":" + key)));
+
+        Account from = accountRepository.findByNumber("123456").orElseThrow();
+        from.setBalance(Money.of(BigDecimal.valueOf(3000)));
+        accountRepository.save(from);
+
+        assertEquals(201, postWithKey(adminToken, key, body).getResponse().getStatus());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /transactions should keep the key claimed when a transfer fails without a known outcome")
+    void shouldKeepKeyOfAmbiguousFailure() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        String key = UUID.randomUUID().toString();
+        String body = transfer(BigDecimal.valueOf(100));
+        doThrow(new IllegalStateException("connection reset")).when(ledgerService).record(any());
+
+        assertThrows(ServletException.class, () -> postWithKey(adminToken, key, body));
+
+        mockMvc.perform(post("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict());
+        assertEquals(0, transactionRepository.count());
+        assertEquals(0, accountRepository.findByNumber("123456").orElseThrow().getBalance().toBigDecimal().compareTo(BigDecimal.valueOf(2000)));
+    }
+}
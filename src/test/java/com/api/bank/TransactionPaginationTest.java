@@ -0,0 +1,232 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.Transaction;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.TransactionStatus;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.TransactionRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TransactionPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TransactionProducer transactionProducer;
+
+    private Account fromAccount;
+
+    private Account toAccount;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("userteste@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user.setRole(UserRole.USER);
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("userteste2@example.com");
+        user2.setPassword(new BCryptPasswordEncoder().encode("userpass"));
+        user2.setRole(UserRole.USER);
+        userRepository.save(user2);
+
+        fromAccount = accountRepository.save(Account.builder()
+                .number("123456")
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .user(user)
+                .build());
+
+        toAccount = accountRepository.save(Account.builder()
+                .number("654321")
+                .balance(Money.of(BigDecimal.valueOf(500)))
+                .user(user2)
+                .build());
+
+        for (int i = 1; i <= 5; i++) {
+            transactionRepository.save(Transaction.builder()
+                    .fromAccount(fromAccount)
+                    .toAccount(toAccount)
+                    .amount(Money.of(BigDecimal.valueOf(i * 10)))
+                    .status(TransactionStatus.COMPLETED)
+                    .build());
+        }
+    }
+
+    private String registerAndLogin(String email, String password, String role) throws Exception {
+        var registerDto = new RegisterDTO(email, password, Enum.valueOf(UserRole.class, role));
+        mockMvc.perform(post("/auth/register")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(status().isOk());
+
+        var authDto = new AuthenticationDTO(email, password);
+        var result = mockMvc.perform(post("/auth/login")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(authDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var loginResponse = objectMapper.readValue(result.getResponse().getContentAsString(), LoginResponseDTO.class);
+        return loginResponse.token();
+    }
+
+    private List<Double> walkAccountHistory(String token, List<Integer> pageSizes) throws Exception {
+        List<Double> amounts = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/transactions/{id}", fromAccount.getId())
+                    .header("Authorization", "Bearer " + token)
+                    .param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            pageSizes.add(page.size());
+            page.forEach(item -> amounts.add(item.get("amount").asDouble()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return amounts;
+    }
+
+    @Test
+    @DisplayName("GET /transactions/{id} should page through the history newest first with a cursor")
+    void shouldPageWithCursor() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Double> amounts = walkAccountHistory(adminToken, pageSizes);
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        assertEquals(List.of(50.0, 40.0, 30.0, 20.0, 10.0), amounts);
+    }
+
+    @Test
+    @DisplayName("GET /transactions/{id} should merge sent and received transfers into one ordered history")
+    void shouldMergeSentAndReceived() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+        for (int i = 1; i <= 3; i++) {
+            transactionRepository.save(Transaction.builder()
+                    .fromAccount(toAccount)
+                    .toAccount(fromAccount)
+                    .amount(Money.of(BigDecimal.valueOf(i)))
+                    .status(TransactionStatus.COMPLETED)
+                    .build());
+        }
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Double> amounts = walkAccountHistory(adminToken, pageSizes);
+
+        assertEquals(List.of(2, 2, 2, 2), pageSizes);
+        assertEquals(List.of(3.0, 2.0, 1.0, 50.0, 40.0, 30.0, 20.0, 10.0), amounts);
+    }
+
+    @Test
+    @DisplayName("GET /transactions should apply amount filters and omit the cursor on the last page")
+    void shouldFilterByAmount() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        MvcResult result = mockMvc.perform(get("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("minAmount", "20")
+                        .param("maxAmount", "40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].amount", is(40.0)))
+                .andExpect(jsonPath("$[0].fromAccount.number", is("123456")))
+                .andExpect(jsonPath("$[0].fromAccount.user").doesNotExist())
+                .andExpect(header().doesNotExist("Link"))
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("GET /transactions should return 400 for a malformed cursor or page size")
+    void shouldRejectInvalidParameters() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        mockMvc.perform(get("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Invalid pagination cursor.")));
+
+        mockMvc.perform(get("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /transactions should return 400 for amount filters finer than a cent")
+    void shouldRejectSubCentAmountFilters() throws Exception {
+        String adminToken = registerAndLogin("admin@example.com", "adminpass", "ADMIN");
+
+        mockMvc.perform(get("/transactions/")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("minAmount", "0.001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasItem("The minimum amount can have at most 2 decimal places.")));
+
+        mockMvc.perform(get("/transactions/{id}", "123456")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("maxAmount", "12345678901234567.00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasItem("The maximum amount can have at most 2 decimal places.")));
+    }
+}
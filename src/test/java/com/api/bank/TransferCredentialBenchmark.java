@@ -0,0 +1,67 @@
+package com.api.bank;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.security.TransferCredentialVerifier;
+import com.api.bank.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password check of a non-admin transfer, per core: BCrypt on every transfer, as before
+ * the verification window, against a repeated transfer served from the window. Both use
+ * the application's encoder, {@code BCryptPasswordEncoder} at its default strength.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransferCredentialBenchmark {
+
+    private static final String PASSWORD = "userpass";
+
+    private PasswordEncoder passwordEncoder;
+    private TransferCredentialVerifier verifier;
+    private User owner;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        verifier = new TransferCredentialVerifier(passwordEncoder, Duration.ofMinutes(5), 10_000);
+        owner = new User("userteste@example.com", passwordEncoder.encode(PASSWORD), UserRole.USER);
+        owner.setId(UUID.randomUUID());
+
+        UserPrincipal principal = UserPrincipal.from(owner);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, "session-token", principal.getAuthorities()));
+        verifier.matches(owner, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptEveryTransfer() {
+        return passwordEncoder.matches(PASSWORD, owner.getPassword());
+    }
+
+    @Benchmark
+    public boolean verificationWindow() {
+        return verifier.matches(owner, PASSWORD);
+    }
+}
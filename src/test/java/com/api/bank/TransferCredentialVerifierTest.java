@@ -0,0 +1,147 @@
+package com.api.bank;
+
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.security.TransferCredentialVerifier;
+import com.api.bank.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferCredentialVerifierTest {
+
+    private final AtomicInteger bcryptChecks = new AtomicInteger();
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4) {
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            bcryptChecks.incrementAndGet();
+            return super.matches(rawPassword, encodedPassword);
+        }
+    };
+
+    private final TransferCredentialVerifier verifier =
+            new TransferCredentialVerifier(passwordEncoder, Duration.ofMinutes(5), 100);
+
+    @AfterEach
+    void clearSession() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private User user(String email, String password) {
+        User user = new User(email, passwordEncoder.encode(password), UserRole.USER);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private void session(User user, String token) {
+        UserPrincipal principal = UserPrincipal.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("A repeated correct password in the same session should skip BCrypt")
+    void shouldServeRepeatedPasswordFromWindow() {
+        User owner = user("owner@example.com", "userpass");
+        session(owner, "token-a");
+
+        assertTrue(verifier.matches(owner, "userpass"));
+        assertTrue(verifier.matches(owner, "userpass"));
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        assertEquals(1, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("A wrong password should never be cached, before or after a successful check")
+    void shouldNotCacheWrongPassword() {
+        User owner = user("owner@example.com", "userpass");
+        session(owner, "token-a");
+
+        assertFalse(verifier.matches(owner, "wrong"));
+        assertFalse(verifier.matches(owner, "wrong"));
+        assertTrue(verifier.matches(owner, "userpass"));
+        assertFalse(verifier.matches(owner, "wrong"));
+
+        assertEquals(4, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("A password change should invalidate the proof of the old password")
+    void shouldInvalidateProofOnPasswordChange() {
+        User owner = user("owner@example.com", "userpass");
+        session(owner, "token-a");
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        owner.setPassword(passwordEncoder.encode("newpass"));
+
+        assertFalse(verifier.matches(owner, "userpass"));
+        assertTrue(verifier.matches(owner, "newpass"));
+        assertEquals(3, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("Another JWT of the same user should not reuse the proof")
+    void shouldInvalidateProofOnTokenChange() {
+        User owner = user("owner@example.com", "userpass");
+        session(owner, "token-a");
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        session(owner, "token-b");
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        assertEquals(2, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("A proof should stop counting once the window expires")
+    void shouldExpireProof() throws InterruptedException {
+        TransferCredentialVerifier shortWindow = new TransferCredentialVerifier(passwordEncoder, Duration.ofMillis(200), 100);
+        User owner = user("owner@example.com", "userpass");
+        session(owner, "token-a");
+        assertTrue(shortWindow.matches(owner, "userpass"));
+
+        Thread.sleep(400);
+
+        assertTrue(shortWindow.matches(owner, "userpass"));
+        assertEquals(2, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("A proof should only ever vouch for the user it was computed for")
+    void shouldIsolateUsers() {
+        User owner = user("owner@example.com", "userpass");
+        User other = user("other@example.com", "otherpass");
+        session(owner, "token-a");
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        // Same session token and the first user's password, but the other user's account.
+        assertFalse(verifier.matches(other, "userpass"));
+        assertTrue(verifier.matches(other, "otherpass"));
+        assertEquals(3, bcryptChecks.get());
+    }
+
+    @Test
+    @DisplayName("Without a session token every check should go through BCrypt")
+    void shouldAlwaysUseBcryptWithoutSession() {
+        User owner = user("owner@example.com", "userpass");
+
+        assertTrue(verifier.matches(owner, "userpass"));
+        assertTrue(verifier.matches(owner, "userpass"));
+
+        assertEquals(2, bcryptChecks.get());
+    }
+}
@@ -0,0 +1,31 @@
+package com.api.bank;
+
+import com.api.bank.engine.TransferResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferResultTest {
+
+    @Test
+    @DisplayName("A withdrawn transfer should never be claimed by a worker")
+    void shouldNotClaimWithdrawnTransfer() {
+        TransferResult result = new TransferResult();
+
+        assertTrue(result.withdraw());
+        assertTrue(result.isCancelled());
+        assertFalse(result.claim());
+    }
+
+    @Test
+    @DisplayName("A claimed transfer should not be withdrawn and should still complete")
+    void shouldNotWithdrawClaimedTransfer() {
+        TransferResult result = new TransferResult();
+
+        assertTrue(result.claim());
+        assertFalse(result.withdraw());
+        assertFalse(result.isDone());
+    }
+}
@@ -0,0 +1,104 @@
+package com.api.bank;
+
+import com.api.bank.entities.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a large table keyed by a UUID primary key, with time-ordered
+ * v7 ids against random v4 ids. The table lives in an on-disk H2 database whose page
+ * cache is much smaller than the table, so random keys pay for scattered page loads
+ * and splits the way a real database does. Scores are rows per second, inserted in
+ * committed batches of {@value #BATCH}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class UuidInsertBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"v7", "v4"})
+    public String version;
+
+    @Param({"2000000"})
+    public int preloadRows;
+
+    @Param({"16384"})
+    public int cacheSizeKb;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        ids = "v7".equals(version) ? UuidV7Generator::next : UUID::randomUUID;
+        directory = Files.createTempDirectory("uuid-insert-");
+        connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + directory.resolve("bench") + ";CACHE_SIZE=" + cacheSizeKb, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table transactions (id uuid primary key, amount bigint not null, date_transfer timestamp not null)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into transactions (id, amount, date_transfer) values (?, ?, current_timestamp)");
+        for (int loaded = 0; loaded < preloadRows; loaded += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insert.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, ids.get());
+            insert.setLong(2, random.nextLong(1, 100_000));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,253 @@
+package com.api.bank;
+
+import com.api.bank.dtos.AuthenticationDTO;
+import com.api.bank.dtos.LoginResponseDTO;
+import com.api.bank.dtos.RegisterDTO;
+import com.api.bank.dtos.TransactionPostDTO;
+import com.api.bank.entities.Account;
+import com.api.bank.entities.Money;
+import com.api.bank.entities.user.User;
+import com.api.bank.enums.UserRole;
+import com.api.bank.kafka.event.TransactionEvent;
+import com.api.bank.kafka.producer.TransactionProducer;
+import com.api.bank.repositories.AccountRepository;
+import com.api.bank.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and latency of the running application under {@value #CLIENTS_DEFAULT}
+ * concurrent HTTP clients, with request threads on a platform pool and then on virtual
+ * threads. Each mode starts the application on a random port and runs two workloads
+ * with every client sending its next request as soon as the previous one is answered:
+ * {@code GET /accounts/} as a read, and {@code POST /transactions/} between one pair of
+ * accounts, whose after-commit publish goes to a stand-in broker that takes
+ * {@code loadtest.send-millis} per send. Skipped unless enabled:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true
+ * </pre>
+ */
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS_DEFAULT = 1000;
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", CLIENTS_DEFAULT);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    @DisplayName("Platform and virtual request threads should both serve every request from 1k concurrent clients")
+    @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+    void compareThreadModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtualThreads)) {
+                URI base = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+                String token = seed(context, base);
+                String mode = virtualThreads ? "virtual" : "platform";
+
+                Result reads = run(() -> HttpRequest.newBuilder(base.resolve("/accounts/"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build());
+                report.add(reads.describe(mode, "reads"));
+
+                byte[] transfer = objectMapper.writeValueAsBytes(TransactionPostDTO.builder()
+                        .fromAccount("123456")
+                        .toAccount("654321")
+                        .passwordUser("adminpass")
+                        .amount(new BigDecimal("0.01"))
+                        .build());
+                Result transfers = run(() -> HttpRequest.newBuilder(base.resolve("/transactions/"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(transfer))
+                        .build());
+                report.add(transfers.describe(mode, "transfers"));
+
+                assertEquals(0, reads.failures(), reads.describe(mode, "reads"));
+                assertEquals(0, transfers.failures(), transfers.describe(mode, "transfers"));
+                assertTrue(reads.completed() > 0 && transfers.completed() > 0);
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        // Passed as arguments, which take precedence over application.properties.
+        return new SpringApplicationBuilder(BankApplication.class, SlowBroker.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+    }
+
+    private String seed(ConfigurableApplicationContext context, URI base) throws Exception {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        User user = userRepository.save(new User("userteste@example.com", encoder.encode("userpass"), UserRole.USER));
+        User user2 = userRepository.save(new User("userteste2@example.com", encoder.encode("userpass"), UserRole.USER));
+        accountRepository.save(Account.builder().number("123456").balance(Money.of(BigDecimal.valueOf(1_000_000))).user(user).build());
+        accountRepository.save(Account.builder().number("654321").balance(Money.of(BigDecimal.valueOf(500))).user(user2).build());
+
+        post(base.resolve("/auth/register"), new RegisterDTO("admin@example.com", "adminpass", UserRole.ADMIN));
+        HttpResponse<String> login = post(base.resolve("/auth/login"), new AuthenticationDTO("admin@example.com", "adminpass"));
+        return objectMapper.readValue(login.body(), LoginResponseDTO.class).token();
+    }
+
+    private HttpResponse<String> post(URI uri, Object body) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response;
+    }
+
+    /**
+     * Runs {@link #CLIENTS} clients for the warmup and then the measurement, recording the
+     * latency of every request that both starts and ends inside the measurement.
+     */
+    private Result run(RequestFactory requests) throws Exception {
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + MEASUREMENT.toNanos();
+        List<Future<Samples>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    Samples samples = new Samples();
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            return samples;
+                        }
+                        int status = httpClient.send(requests.next(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            samples.add(end - start, status >= 200 && status < 300);
+                        }
+                    }
+                }));
+            }
+        }
+
+        Samples all = new Samples();
+        for (Future<Samples> client : clients) {
+            all.addAll(client.get());
+        }
+        return all.result(MEASUREMENT);
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest next();
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[256];
+        private int size;
+        private long failures;
+
+        void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success) {
+                failures++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], true);
+            }
+            failures += other.failures;
+        }
+
+        Result result(Duration measurement) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Result(size, failures, size / (measurement.toNanos() / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    private record Result(long completed, long failures, double throughput, double p50Millis, double p99Millis) {
+
+        String describe(String mode, String workload) {
+            return String.format("%-8s %-9s %8.1f req/s  p50 %8.1f ms  p99 %8.1f ms  %d requests, %d failed",
+                    mode, workload, throughput, p50Millis, p99Millis, completed, failures);
+        }
+    }
+
+    /** Stands in for a broker whose sends take {@code loadtest.send-millis} to be acknowledged. */
+    @Configuration
+    static class SlowBroker {
+
+        @Bean
+        @Primary
+        TransactionProducer slowTransactionProducer() {
+            long sendMillis = Long.getLong("loadtest.send-millis", 20);
+            return new TransactionProducer() {
+                @Override
+                public void sendTransactionEvent(TransactionEvent event) {
+                    pause(sendMillis);
+                }
+
+                @Override
+                public void sendTransactionEvents(List<TransactionEvent> events) {
+                    pause(sendMillis);
+                }
+            };
+        }
+
+        private static void pause(long millis) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}